@@ -0,0 +1,48 @@
+package ancientmeme.pomodoro.benchmark;
+
+import ancientmeme.pomodoro.util.DisplayText;
+import ancientmeme.pomodoro.util.TimerMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatting the clock's texts, the work done for every displayed
+ * second. The String.format fallback is measured for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DisplayTextBenchmark {
+    private long remainingSeconds = 25 * 60;
+    private int breakCount;
+
+    @Benchmark
+    public String formatTime() {
+        remainingSeconds = (remainingSeconds == 0) ? 25 * 60 : remainingSeconds - 1;
+        return DisplayText.formatTime(remainingSeconds);
+    }
+
+    @Benchmark
+    public String formatTimeWithFormat() {
+        remainingSeconds = (remainingSeconds == 0) ? 25 * 60 : remainingSeconds - 1;
+        return String.format("%02d:%02d", remainingSeconds / 60, remainingSeconds % 60);
+    }
+
+    @Benchmark
+    public String modeText() {
+        breakCount = (breakCount + 1) % 16;
+        return DisplayText.modeText((breakCount % 2 == 0) ? TimerMode.SESSION : TimerMode.BREAK, breakCount);
+    }
+}
@@ -0,0 +1,110 @@
+package ancientmeme.pomodoro.benchmark;
+
+import ancientmeme.pomodoro.settings.MappedSettingsStore;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.PreferencesSettingsStore;
+import ancientmeme.pomodoro.settings.SettingsChange;
+import ancientmeme.pomodoro.settings.SettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+/**
+ * Writing a setting through each store, a transaction of every setting
+ * the settings window saves, and notifying the settings listeners.
+ * The preferences store writes to its own node, never to the user's
+ * settings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettingsBenchmark {
+    @Param({"memory", "mapped", "preferences"})
+    public String store;
+    @Param({"1", "10", "100"})
+    public int listenerCount;
+
+    private UserSettings settings;
+    private Preferences node;
+    private Path file;
+    private long length;
+    private boolean flag;
+
+    @Setup
+    public void setup(Blackhole blackhole) throws IOException {
+        settings = new UserSettings(createStore());
+        for (int i = 0; i < listenerCount; ++i) {
+            settings.addListener(change -> blackhole.consume(change.isEmpty()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, BackingStoreException {
+        settings.flush();
+        if (node != null) {
+            node.removeNode();
+        }
+        if (file != null) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public void setSessionLength() {
+        // Alternate the value so every call is a real write
+        length = (length == 25) ? 30 : 25;
+        settings.setSessionLength(length, 0);
+    }
+
+    @Benchmark
+    public void saveAllSettings() {
+        flag = !flag;
+        settings.edit()
+                .setSessionLength(flag ? 25 : 30, 0)
+                .setBreakLength(flag ? 5 : 10, 0)
+                .setIsLongBreakEnabled(flag)
+                .setIsLightModeEnabled(flag)
+                .setIsAlwaysOnTop(flag)
+                .commit();
+    }
+
+    @Benchmark
+    public void notifySettingsUpdate() {
+        settings.notifySettingsUpdate(SettingsChange.all());
+    }
+
+    private SettingsStore createStore() throws IOException {
+        switch (store) {
+            case "mapped":
+                file = Files.createTempFile("pomodoro-benchmark", ".bin");
+                Files.delete(file);
+                return new MappedSettingsStore(file);
+            case "preferences":
+                node = Preferences.userRoot().node("ancientmeme/pomodoro/benchmark");
+                return new PreferencesSettingsStore(node);
+            default:
+                return new MemorySettingsStore();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ancientmeme.pomodoro.benchmark;
+
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the remaining time while the timer runs, from one thread and
+ * from as many threads as the display, the API and integrations would
+ * use, and the cost of the start, pause, resume and stop transitions,
+ * which re-arm the deadline on a live timing wheel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBenchmark {
+    private TimingWheel wheel;
+    private PomodoroTimer runningTimer;
+    private PomodoroTimer cycledTimer;
+
+    @Setup
+    public void setup() {
+        wheel = new TimingWheel(1);
+        UserSettings settings = new UserSettings(new MemorySettingsStore());
+
+        runningTimer = new PomodoroTimer(wheel);
+        runningTimer.setSettingsReference(settings);
+        runningTimer.startTimer();
+
+        cycledTimer = new PomodoroTimer(wheel);
+        cycledTimer.setSettingsReference(settings);
+    }
+
+    @TearDown
+    public void tearDown() {
+        runningTimer.shutdownTimer();
+        cycledTimer.shutdownTimer();
+        wheel.shutdown();
+    }
+
+    @Benchmark
+    public long remainingTime() {
+        return runningTimer.getRemainingTime();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long remainingTimeConcurrent() {
+        return runningTimer.getRemainingTime();
+    }
+
+    @Benchmark
+    public long startPauseResumeStop() {
+        cycledTimer.startTimer();
+        cycledTimer.pauseTimer();
+        cycledTimer.resumeTimer();
+        long remaining = cycledTimer.getRemainingTime();
+        cycledTimer.stopTimer();
+        return remaining;
+    }
+}
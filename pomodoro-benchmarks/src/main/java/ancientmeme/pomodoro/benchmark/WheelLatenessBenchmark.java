@@ -0,0 +1,93 @@
+package ancientmeme.pomodoro.benchmark;
+
+import ancientmeme.pomodoro.monitoring.LatencyHistogram;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hundred thousand timers spread over a second on a real timing wheel
+ * with a resolution of one millisecond, about a hundred due in every
+ * tick. The score is how long from scheduling the first one until the
+ * last one ran, about 1.25 seconds if none runs late. How late each ran
+ * after its deadline is printed as percentiles in microseconds at the
+ * end, which the unit tests, on a virtual clock, cannot measure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WheelLatenessBenchmark {
+    private static final int TIMER_COUNT = 100_000;
+    private static final long SPREAD_MILLIS = 1000;
+    // Scheduling all of them takes a while, the first ones fall due after
+    private static final long LEAD_MILLIS = 250;
+    // Later than this is counted in the last bucket, the maximum stays exact
+    private static final long HIGHEST_LATENESS_MICROS = 10_000_000;
+
+    private TimingWheel wheel;
+    // Every timer of the measurement iterations, warmup ones are left out
+    private LatencyHistogram lateness;
+    // Where the running iteration records to
+    private LatencyHistogram recorded;
+
+    @Setup
+    public void setup() {
+        wheel = new TimingWheel(1);
+        lateness = new LatencyHistogram(HIGHEST_LATENESS_MICROS);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration(IterationParams iteration) {
+        boolean isMeasuring = iteration.getType() == IterationType.MEASUREMENT;
+        recorded = (isMeasuring) ? lateness : new LatencyHistogram(HIGHEST_LATENESS_MICROS);
+    }
+
+    /**
+     * JMH has no place for percentiles of something other than the
+     * score, they are printed after the measurement instead
+     */
+    @TearDown
+    public void tearDown() {
+        wheel.shutdown();
+        System.out.format("Lateness of %d timers: p50 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+                lateness.getTotalCount(), lateness.getValueAtPercentile(50),
+                lateness.getValueAtPercentile(99), lateness.getValueAtPercentile(99.9),
+                lateness.getMax());
+    }
+
+    @Benchmark
+    public void hundredThousandTimers() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(TIMER_COUNT);
+        // The wheel's clock is System.nanoTime in milliseconds, so
+        // deadlines compare with System.nanoTime directly
+        long start = wheel.getClock().millis() + LEAD_MILLIS;
+        for (int i = 0; i < TIMER_COUNT; ++i) {
+            long deadlineNanos = (start + i % SPREAD_MILLIS) * 1_000_000;
+            wheel.scheduleAt(() -> {
+                recorded.record(Math.max(0, System.nanoTime() - deadlineNanos) / 1000);
+                fired.countDown();
+            }, start + i % SPREAD_MILLIS);
+        }
+        if (!fired.await(LEAD_MILLIS + SPREAD_MILLIS + 10_000, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException(fired.getCount() + " timers never ran");
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package ancientmeme.pomodoro;
+
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.util.TimerMode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The order and length of the sessions and breaks a PomodoroTimer runs
+ * through, compiled once into arrays. A plan is one cycle of phases,
+ * for instance 50/10 three times then a 30 minute long break, repeated
+ * a number of times to make up a day. Phases are numbered from the first
+ * session of the day and keep counting once the day's plan is done,
+ * the cycle simply starts over.
+ *
+ * The start of every phase within the cycle is kept as a prefix sum, so
+ * when any phase starts, or when the day's plan ends, is answered in
+ * constant time without stepping through the phases before it.
+ */
+public final class CyclePlan {
+    private final TimerMode[] modes;
+    private final long[] lengths;
+    // starts[i] is the offset of phase i from the start of its cycle,
+    // starts[modes.length] the length of the whole cycle
+    private final long[] starts;
+    private final int cycleCount;
+
+    private CyclePlan(List<TimerMode> modeList, List<Long> lengthList, int cycleCount) {
+        int phaseCount = modeList.size();
+        modes = modeList.toArray(new TimerMode[0]);
+        lengths = new long[phaseCount];
+        starts = new long[phaseCount + 1];
+        for (int i = 0; i < phaseCount; ++i) {
+            lengths[i] = lengthList.get(i);
+            starts[i + 1] = starts[i] + lengths[i];
+        }
+        this.cycleCount = cycleCount;
+    }
+
+    /**
+     * Compiles the plan the user settings describe: a session and a break
+     * in turn, with the break after every few sessions doubled as a long
+     * break if enabled. A day that does not end on a long break is
+     * rounded up to the next one.
+     * @param settings the user's settings
+     * @return a plan of the user's daily sessions
+     */
+    public static CyclePlan fromSettings(UserSettings settings) {
+        long sessionLength = settings.getSessionLength();
+        long breakLength = settings.getBreakLength();
+        int dailySessions = settings.getDailySessions();
+        Builder builder = new Builder();
+        if (!settings.isLongBreakEnabled()) {
+            return builder.session(sessionLength).shortBreak(breakLength)
+                    .cycles(dailySessions)
+                    .build();
+        }
+
+        int sessionsPerLongBreak = settings.getSessionsPerLongBreak();
+        for (int i = 1; i < sessionsPerLongBreak; ++i) {
+            builder.session(sessionLength).shortBreak(breakLength);
+        }
+        return builder.session(sessionLength).longBreak(2 * breakLength)
+                .cycles((dailySessions + sessionsPerLongBreak - 1) / sessionsPerLongBreak)
+                .build();
+    }
+
+    /**
+     * @return how many phases make up one cycle
+     */
+    public int getPhaseCount() {
+        return modes.length;
+    }
+
+    /**
+     * @return how many times the cycle runs in a day
+     */
+    public int getCycleCount() {
+        return cycleCount;
+    }
+
+    /**
+     * @return how many phases make up the day's plan
+     */
+    public int getDailyPhaseCount() {
+        return modes.length * cycleCount;
+    }
+
+    /**
+     * @return length of one cycle in milliseconds
+     */
+    public long getCycleLength() {
+        return starts[modes.length];
+    }
+
+    /**
+     * @return length of the day's plan in milliseconds
+     */
+    public long getDailyLength() {
+        return getCycleLength() * cycleCount;
+    }
+
+    /**
+     * @param phase number of the phase, 0 is the first session of the day
+     * @return the mode of the phase
+     */
+    public TimerMode getMode(int phase) {
+        return modes[indexInCycle(phase)];
+    }
+
+    /**
+     * @param phase number of the phase, 0 is the first session of the day
+     * @return length of the phase in milliseconds
+     */
+    public long getLength(int phase) {
+        return lengths[indexInCycle(phase)];
+    }
+
+    /**
+     * Gets when a phase starts, counted from the start of the day
+     * @param phase number of the phase, may lie beyond the day's plan
+     * @return offset of the start of the phase in milliseconds
+     */
+    public long getStart(int phase) {
+        checkPhase(phase);
+        return (long) (phase / modes.length) * getCycleLength() + starts[phase % modes.length];
+    }
+
+    private int indexInCycle(int phase) {
+        checkPhase(phase);
+        return phase % modes.length;
+    }
+
+    private static void checkPhase(int phase) {
+        if (phase < 0) {
+            throw new IllegalArgumentException("Phases are counted from 0, got " + phase);
+        }
+    }
+
+    /**
+     * Collects the phases of a cycle, in order
+     */
+    public static class Builder {
+        private final List<TimerMode> modes = new ArrayList<>();
+        private final List<Long> lengths = new ArrayList<>();
+        private int cycleCount = 1;
+
+        public Builder session(long length) {
+            return phase(TimerMode.SESSION, length);
+        }
+
+        public Builder shortBreak(long length) {
+            return phase(TimerMode.BREAK, length);
+        }
+
+        public Builder longBreak(long length) {
+            return phase(TimerMode.LONG_BREAK, length);
+        }
+
+        /**
+         * Appends a phase to the cycle
+         * @param mode the mode of the phase
+         * @param length length of the phase in milliseconds
+         * @return this builder
+         */
+        public Builder phase(TimerMode mode, long length) {
+            if (length <= 0) {
+                throw new IllegalArgumentException("A phase must last, got " + length + "ms");
+            }
+            modes.add(mode);
+            lengths.add(length);
+            return this;
+        }
+
+        /**
+         * Set how many times the cycle runs in a day, once by default
+         * @param count number of cycles
+         * @return this builder
+         */
+        public Builder cycles(int count) {
+            if (count <= 0) {
+                throw new IllegalArgumentException("A day has at least one cycle, got " + count);
+            }
+            cycleCount = count;
+            return this;
+        }
+
+        /**
+         * Compiles the phases into a plan
+         * @return the plan
+         * @throws IllegalStateException if the cycle does not start with a session
+         */
+        public CyclePlan build() {
+            if (modes.isEmpty() || modes.get(0) != TimerMode.SESSION) {
+                throw new IllegalStateException("A cycle starts with a session");
+            }
+            return new CyclePlan(modes, lengths, cycleCount);
+        }
+    }
+}
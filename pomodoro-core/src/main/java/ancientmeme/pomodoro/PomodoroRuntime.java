@@ -0,0 +1,101 @@
+package ancientmeme.pomodoro;
+
+import ancientmeme.pomodoro.timing.TimingWheel;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The threads of the application in one place. Deadlines, ticks and
+ * delayed work are armed on a single timing wheel whose worker never
+ * blocks on I/O. Blocking work such as file writes, preference flushes
+ * and resource loading runs on a small I/O pool whose threads exit once
+ * idle, so an idle application keeps only the wheel's worker. Every
+ * thread is a daemon, a shutdown drains the pending work within a fixed
+ * time budget instead of relying on System.exit.
+ */
+public final class PomodoroRuntime {
+    // Most blocking tasks run at once, more are queued
+    private static final int IO_THREADS = 2;
+    // How long an idle I/O thread waits for work before it exits
+    private static final long IO_KEEP_ALIVE = 5 * PomodoroTimer.SECOND;
+    private static PomodoroRuntime sharedRuntime;
+
+    private final TimingWheel wheel;
+    private final ThreadPoolExecutor ioExecutor;
+
+    /**
+     * Constructs a runtime around the given wheel
+     * @param wheelRef the wheel that runs deadlines and delayed work
+     */
+    public PomodoroRuntime(TimingWheel wheelRef) {
+        wheel = wheelRef;
+        AtomicInteger threadCount = new AtomicInteger();
+        ioExecutor = new ThreadPoolExecutor(IO_THREADS, IO_THREADS, IO_KEEP_ALIVE, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "pomodoro-io-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        ioExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Gets the runtime shared by the whole process, built around
+     * the shared timing wheel
+     * @return the shared runtime
+     */
+    public static synchronized PomodoroRuntime shared() {
+        if (sharedRuntime == null) {
+            sharedRuntime = new PomodoroRuntime(TimingWheel.shared());
+        }
+        return sharedRuntime;
+    }
+
+    public TimingWheel getTimingWheel() {
+        return wheel;
+    }
+
+    /**
+     * Gets the executor for blocking work, tasks must not wait on
+     * the timer or the FX Application Thread
+     * @return the I/O executor
+     */
+    public ExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    /**
+     * Gets the number of threads the runtime currently keeps alive
+     * @return live I/O threads plus the wheel's worker
+     */
+    public int getThreadCount() {
+        return ioExecutor.getPoolSize() + 1;
+    }
+
+    /**
+     * Stops accepting work, waits for the queued and running I/O tasks
+     * to finish within the budget, then stops the wheel. Work still
+     * running when the budget is spent is interrupted.
+     * @param budgetMillis longest time to wait for pending work
+     * @return whether every pending task finished within the budget
+     */
+    public boolean shutdown(long budgetMillis) {
+        ioExecutor.shutdown();
+        boolean isDrained;
+        try {
+            isDrained = ioExecutor.awaitTermination(budgetMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            isDrained = false;
+        }
+        if (!isDrained) {
+            ioExecutor.shutdownNow();
+        }
+        wheel.shutdown();
+        return isDrained;
+    }
+}
@@ -0,0 +1,629 @@
+package ancientmeme.pomodoro;
+
+import ancientmeme.pomodoro.monitoring.TimerControlEvent;
+import ancientmeme.pomodoro.monitoring.TimerTransitionEvent;
+import ancientmeme.pomodoro.timing.Clock;
+import ancientmeme.pomodoro.timing.Timeout;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.util.TimerEventType;
+import ancientmeme.pomodoro.util.TimerMode;
+import ancientmeme.pomodoro.settings.UserSettings;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Handles the logic for the clock, supports pausing,
+ * stopping, and resetting timer settings.
+ */
+public class PomodoroTimer {
+    public static final long SECOND = 1000;
+    public static final long MINUTE = 60 * SECOND;
+    private UserSettings userSettings;
+    // The wheel fires a single task when the current deadline is reached
+    private final TimingWheel wheel;
+    // Monotonic time source, all the cursors below are read on this clock
+    private final Clock clock;
+    // One-shot task armed for the current deadline, null if nothing is armed
+    private Timeout deadlineTask;
+    // Task armed for the next whole second of remaining time, only while subscribed
+    private Timeout tickTask;
+    // Timer cursor to indicate when the timer should end
+    private long endTime;
+    // Length of the current session or break in milliseconds
+    private long phaseLength;
+    // Pause cursor, values only has meaning if isPause is true
+    private long pauseStart;
+    private int breakCount;
+    // Number of the current phase in the plan, counted from the first session
+    private int phase;
+    private TimerMode mode;
+    // Set with setPlan, null to follow the user settings
+    private CyclePlan customPlan;
+    // Compiled from the settings below, recompiled once they change
+    private CyclePlan settingsPlan;
+    private long planSessionLength;
+    private long planBreakLength;
+    private boolean planHasLongBreaks;
+    private int planSessionsPerLongBreak;
+    private int planDailySessions;
+    private boolean isTimerRunning;
+    private boolean isPause;
+    private final List<TimerListener> listeners;
+    private final TimerPublisher publisher;
+    private final TimerMetrics metrics;
+
+    /**
+     * Constructs a pomodoro timer for the application to use.
+     * the default session and break length is set to the pomodoro
+     * technique recommendation: 25 minutes / 5 minutes.
+     * The timer registers its deadlines with the wheel of the
+     * runtime shared by the whole process.
+     */
+    public PomodoroTimer() {
+        this(PomodoroRuntime.shared().getTimingWheel());
+    }
+
+    /**
+     * Constructs a pomodoro timer that registers its deadlines
+     * with the given timing wheel, time is read from the wheel's clock
+     * @param wheelRef the wheel that fires the timer's transitions
+     */
+    public PomodoroTimer(TimingWheel wheelRef) {
+        wheel = wheelRef;
+        clock = wheel.getClock();
+        listeners = new CopyOnWriteArrayList<>();
+        publisher = new TimerPublisher(this);
+        metrics = new TimerMetrics();
+        breakCount = 0;
+        phase = 0;
+        mode = TimerMode.SESSION;
+
+        isTimerRunning = false;
+        isPause = false;
+    }
+
+    public void setSettingsReference(UserSettings settingsRef) {
+        userSettings = settingsRef;
+    }
+
+    /**
+     * Register a listener that is told about every start, pause,
+     * resume, stop and completed session or break
+     * @param listener the listener to add
+     */
+    public void addListener(TimerListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(TimerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the publisher of the timer's snapshots, subscribing to it
+     * replaces polling the getters
+     * @return the publisher of this timer
+     */
+    public TimerPublisher getPublisher() {
+        return publisher;
+    }
+
+    /**
+     * Gets the wheel the timer's deadlines and ticks are armed on
+     * @return the timing wheel of this timer
+     */
+    public TimingWheel getTimingWheel() {
+        return wheel;
+    }
+
+    /**
+     * Gets the counters of ticks, transitions and how late they ran
+     * @return the metrics of this timer
+     */
+    public TimerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the whole state of the timer at once
+     * @return the current state of the timer
+     */
+    public synchronized TimerSnapshot getSnapshot() {
+        return snapshot(null, clock.millis());
+    }
+
+    /**
+     * Gets what the timer needs to carry on after a restart
+     * @return the current state of the timer, without any clock reading
+     */
+    public synchronized TimerState getState() {
+        long remaining = getRemainingTime();
+        return new TimerState(isTimerRunning, isPause, mode, phase, breakCount, phaseLength, remaining);
+    }
+
+    /**
+     * Carries on from a state saved by an earlier run of the application.
+     * A running phase has lost the time the application was away, a
+     * paused one has not. If phases ended in the meantime the timer moves
+     * on to the phase the plan is in now, as if it had kept running.
+     *
+     * No listener is told, neither of the restore nor of the phases that
+     * ended while away: nobody was there to see them, an alarm for each
+     * of them at once would only be noise, and the journal only records
+     * what the user lived through. Subscribers get the restored state.
+     * @param state the saved state
+     * @param elapsed milliseconds that passed since the state was saved
+     */
+    public synchronized void restoreState(TimerState state, long elapsed) {
+        disarmDeadline();
+        isTimerRunning = state.isTimerRunning();
+        isPause = state.isPause();
+        mode = state.getMode();
+        phase = state.getPhase();
+        breakCount = state.getBreakCount();
+        phaseLength = state.getPhaseLength();
+
+        long now = clock.millis();
+        long remaining = state.getRemainingTime();
+        if (isPause) {
+            pauseStart = now;
+        } else {
+            remaining -= Math.max(0, elapsed);
+        }
+        if (isTimerRunning && remaining <= 0) {
+            remaining = skipPhases(-remaining);
+        }
+        endTime = now + Math.max(0, remaining);
+        if (isTimerRunning && !isPause) {
+            armDeadline();
+        }
+        if (publisher.hasSubscribers()) {
+            publisher.publish(snapshot(null, now));
+        }
+    }
+
+    /**
+     * Moves past the phases that ended while the application was away.
+     * The plan's prefix sums find the phase without stepping through
+     * every one, only the cycle it lands in is searched.
+     * @param overrun milliseconds since the current phase ended
+     * @return milliseconds left of the phase the timer is in now
+     */
+    private long skipPhases(long overrun) {
+        CyclePlan plan = getPlan();
+        int phaseCount = plan.getPhaseCount();
+        int next = phase + 1;
+        long nextStart = plan.getStart(next);
+
+        // Whole cycles first, each has the same breaks
+        long cycles = overrun / plan.getCycleLength();
+        long target = nextStart + overrun;
+        int cycleBreaks = 0;
+        for (int i = 0; i < phaseCount; ++i) {
+            if (plan.getMode(i) != TimerMode.SESSION) {
+                cycleBreaks += 1;
+            }
+        }
+        int current = next + (int) cycles * phaseCount;
+        breakCount += (int) cycles * cycleBreaks;
+        if (plan.getMode(current) != TimerMode.SESSION) {
+            breakCount += 1;
+        }
+        // At most one cycle remains, the phase that ends after the target is the current one
+        while (plan.getStart(current + 1) <= target) {
+            current += 1;
+            if (plan.getMode(current) != TimerMode.SESSION) {
+                breakCount += 1;
+            }
+        }
+
+        phase = current;
+        mode = plan.getMode(phase);
+        phaseLength = plan.getLength(phase);
+        return plan.getStart(phase + 1) - target;
+    }
+
+    /**
+     * Gets the plan of sessions and breaks the timer runs through
+     * @return the plan set with setPlan, or else the one the settings describe
+     */
+    public synchronized CyclePlan getPlan() {
+        if (customPlan != null) {
+            return customPlan;
+        }
+        long sessionLength = userSettings.getSessionLength();
+        long breakLength = userSettings.getBreakLength();
+        boolean hasLongBreaks = userSettings.isLongBreakEnabled();
+        int sessionsPerLongBreak = userSettings.getSessionsPerLongBreak();
+        int dailySessions = userSettings.getDailySessions();
+        if (settingsPlan == null || sessionLength != planSessionLength
+                || breakLength != planBreakLength || hasLongBreaks != planHasLongBreaks
+                || sessionsPerLongBreak != planSessionsPerLongBreak || dailySessions != planDailySessions) {
+            settingsPlan = CyclePlan.fromSettings(userSettings);
+            planSessionLength = sessionLength;
+            planBreakLength = breakLength;
+            planHasLongBreaks = hasLongBreaks;
+            planSessionsPerLongBreak = sessionsPerLongBreak;
+            planDailySessions = dailySessions;
+        }
+        return settingsPlan;
+    }
+
+    /**
+     * Run through the given plan instead of the one the settings describe,
+     * for plans the settings cannot express. The plan is not persisted.
+     * A running phase keeps its length, the plan applies from the next one.
+     * @param plan the plan to follow, null to follow the settings again
+     */
+    public synchronized void setPlan(CyclePlan plan) {
+        customPlan = plan;
+    }
+
+    /**
+     * Gets the number of the current phase of the plan
+     * @return 0 for the first session, counting up with every transition
+     */
+    public synchronized int getPhase() {
+        return phase;
+    }
+
+    /**
+     * Gets how long until a later phase of the plan starts, provided the
+     * timer is not paused in the meantime. While the timer is stopped
+     * the times are those of a timer started now.
+     * @param laterPhase number of the phase, after the current one
+     * @return milliseconds until the phase starts
+     * @throws IllegalArgumentException if the phase has already started
+     */
+    public synchronized long getTimeUntilPhase(int laterPhase) {
+        int firstPending = (isTimerRunning) ? phase + 1 : 0;
+        if (laterPhase < firstPending) {
+            throw new IllegalArgumentException("Phase " + laterPhase + " has already started");
+        }
+        if (!isTimerRunning) {
+            return getPlan().getStart(laterPhase);
+        }
+        // The plan applies from the end of the current phase on
+        CyclePlan plan = getPlan();
+        return getRemainingTime() + plan.getStart(laterPhase) - plan.getStart(phase + 1);
+    }
+
+    /**
+     * Gets how long until the last phase of the day's plan ends
+     * @return milliseconds until the plan ends, 0 once the day's plan is done
+     */
+    public synchronized long getTimeUntilPlanEnd() {
+        int endPhase = getPlan().getDailyPhaseCount();
+        if (isTimerRunning && phase >= endPhase) {
+            return 0;
+        }
+        return getTimeUntilPhase(endPhase);
+    }
+
+    /**
+     * Gets the current session length
+     * @return The current length for a session in milliseconds
+     */
+    public long getSessionLength() {
+        return userSettings.getSessionLength();
+    }
+
+    /**
+     * Set the length of a session
+     * @param minutes how many minutes in a session
+     * @param seconds how many seconds in a session
+     */
+    public void setSessionLength(long minutes, long seconds) {
+        userSettings.setSessionLength(minutes, seconds);
+    }
+
+    /**
+     * Gets the current break length
+     * @return The current length for a break in milliseconds
+     */
+    public long getBreakLength() {
+        return userSettings.getBreakLength();
+    }
+
+    /**
+     * Set the length for a break
+     * @param minutes how many minutes in a session
+     * @param seconds how many seconds in a session
+     */
+    public void setBreakLength(long minutes, long seconds) {
+        userSettings.setBreakLength(minutes, seconds);
+    }
+
+    /**
+     *
+     * @return the amount of breaks
+     */
+    public synchronized int getBreakCount() {
+        return breakCount;
+    }
+
+    /**
+     * Gets the remaining time left for the current
+     * session or break in milliseconds
+     * @return remaining milliseconds of current session or break
+     */
+    public synchronized long getRemainingTime() {
+        if (!isTimerRunning) {
+            return getPlan().getLength(phase);
+        }
+
+        // Time stands still while paused
+        long now = (isPause) ? pauseStart : clock.millis();
+        return Math.max(0, endTime - now);
+    }
+
+    /**
+     * Gets the mode the timer is currently on
+     * @return the mode of the current phase of the plan
+     */
+    public synchronized TimerMode getTimerMode() {
+        return mode;
+    }
+
+    /**
+     * Gets information on is the timer running
+     * @return is the timer in a session
+     */
+    public synchronized boolean isTimerRunning() {
+        return isTimerRunning;
+    }
+
+    /**
+     * Gets information on is the current timer paused
+     * @return is the timer paused
+     */
+    public synchronized boolean isPause() {
+        return isPause;
+    }
+
+    /**
+     * Starts a session and arms a one-shot task for the moment
+     * the session ends. The task is re-armed on every pause, resume
+     * and mode switch, so nothing runs between deadlines.
+     */
+    public synchronized void startTimer() {
+        if (isTimerRunning) {
+            return;
+        }
+
+        isTimerRunning = true;
+        phase = 0;
+        mode = TimerMode.SESSION;
+        phaseLength = getPlan().getLength(phase);
+        long now = clock.millis();
+        endTime = now + phaseLength;
+        armDeadline();
+        TimerControlEvent.emit(TimerEventType.STARTED, getTimerMode(), phaseLength, breakCount);
+        notifyListeners(TimerEventType.STARTED, phaseLength, breakCount, now);
+    }
+
+    /**
+     * Pausing the timer if it is currently active, a stopped timer has
+     * nothing to pause
+     */
+    public synchronized void pauseTimer() {
+        if (!isTimerRunning || isPause) {
+            return;
+        }
+
+        isPause = true;
+        pauseStart = clock.millis();
+        disarmDeadline();
+        TimerControlEvent.emit(TimerEventType.PAUSED, getTimerMode(), endTime - pauseStart, breakCount);
+        notifyListeners(TimerEventType.PAUSED, phaseLength - (endTime - pauseStart), breakCount, pauseStart);
+    }
+
+    /**
+     * Resume the timer if it is currently active
+     */
+    public synchronized void resumeTimer() {
+        if (!isTimerRunning || !isPause) {
+            return;
+        }
+
+        // Push the deadline back by however long the timer was paused
+        long now = clock.millis();
+        long pauseDuration = now - pauseStart;
+        endTime += pauseDuration;
+        isPause = false;
+        armDeadline();
+        TimerControlEvent.emit(TimerEventType.RESUMED, getTimerMode(), endTime - now, breakCount);
+        notifyListeners(TimerEventType.RESUMED, pauseDuration, breakCount, now);
+    }
+
+    /**
+     * Stops the timer completely and reset its mode
+     */
+    public synchronized void stopTimer() {
+        if (!isTimerRunning) {
+            return;
+        }
+
+        long now = clock.millis();
+        // Time stands still while paused
+        long elapsed = phaseLength - Math.max(0, endTime - ((isPause) ? pauseStart : now));
+        int finalBreakCount = breakCount;
+
+        TimerMode stoppedMode = mode;
+
+        // The day's plan starts over with the next start
+        breakCount = 0;
+        phase = 0;
+        mode = TimerMode.SESSION;
+        isTimerRunning = false;
+        isPause = false;
+        disarmDeadline();
+        TimerControlEvent.emit(TimerEventType.STOPPED, stoppedMode, phaseLength - elapsed, finalBreakCount);
+        notifyListeners(TimerEventType.STOPPED, elapsed, finalBreakCount, now);
+    }
+
+    /**
+     * Performs the same task as stopTimer, additionally resets
+     * all settings back to default
+     */
+    public void resetTimer() {
+        stopTimer();
+        setSessionLength(25, 0);
+        setBreakLength(5, 0);
+    }
+
+    /**
+     * Releases the deadline registered with the timing wheel, should
+     * only be called when application is preparing to exit. The wheel
+     * itself is shared and keeps serving other timers.
+     */
+    public synchronized void shutdownTimer() {
+        disarmDeadline();
+        publisher.close();
+    }
+
+    /**
+     * Starts or stops the second ticks after a subscriber was added
+     */
+    synchronized void subscribersChanged() {
+        armTick();
+    }
+
+    /**
+     * Schedules the deadline task for the current endTime, replacing
+     * any task that is already armed, and the tick leading up to it
+     */
+    private void armDeadline() {
+        disarmDeadline();
+        deadlineTask = wheel.scheduleAt(this::onDeadline, endTime);
+        armTick();
+    }
+
+    /**
+     * Cancels the armed deadline task, if there is one
+     */
+    private void disarmDeadline() {
+        if (deadlineTask != null) {
+            deadlineTask.cancel();
+            deadlineTask = null;
+        }
+        disarmTick();
+    }
+
+    /**
+     * Schedules the tick for the next time the remaining time reaches
+     * a whole second, the last second ends with the deadline itself
+     */
+    private void armTick() {
+        disarmTick();
+        if (!isTimerRunning || isPause || !publisher.hasSubscribers()) {
+            return;
+        }
+        long remaining = endTime - clock.millis();
+        long nextSecond = (remaining - 1) / SECOND;
+        if (nextSecond >= 1) {
+            long tickTime = endTime - nextSecond * SECOND;
+            tickTask = wheel.scheduleAt(() -> onTick(tickTime), tickTime);
+        }
+    }
+
+    private void disarmTick() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+    }
+
+    /* Should only be used by timer thread */
+    private synchronized void onTick(long tickTime) {
+        if (!isTimerRunning || isPause) {
+            return;
+        }
+        long now = clock.millis();
+        // A tick ahead of the clock would show the previous second again
+        if (now >= tickTime) {
+            metrics.recordTick(now - tickTime);
+            publisher.publish(snapshot(TimerEventType.TICK, now));
+        }
+        armTick();
+    }
+
+    /* Should only be used by timer thread */
+    private synchronized void onDeadline() {
+        // A stale task may fire after a pause or stop raced with it
+        if (!isTimerRunning || isPause) {
+            return;
+        }
+        // Guard against the wheel firing ahead of the timer's clock
+        long now = clock.millis();
+        if (now < endTime) {
+            armDeadline();
+            return;
+        }
+        metrics.recordDeadline(now - endTime);
+        switchMode(now);
+    }
+
+    /* Should only be used by timer thread */
+    private void switchMode(long now) {
+        TimerEventType completed;
+        switch (mode) {
+            case BREAK:
+                completed = TimerEventType.BREAK_COMPLETED;
+                break;
+            case LONG_BREAK:
+                completed = TimerEventType.LONG_BREAK_COMPLETED;
+                break;
+            default:
+                completed = TimerEventType.SESSION_COMPLETED;
+                break;
+        }
+        long completedLength = phaseLength;
+        long completedAt = endTime;
+
+        CyclePlan plan = getPlan();
+        phase += 1;
+        mode = plan.getMode(phase);
+        if (mode != TimerMode.SESSION) {
+            breakCount += 1;
+        }
+        long nextEnd = plan.getLength(phase);
+
+        phaseLength = nextEnd;
+        // The next phase ends relative to the planned end of this one, so a
+        // late wakeup does not push back every later transition of the day.
+        // If a whole phase was missed the schedule starts over from now.
+        endTime = completedAt + nextEnd;
+        if (endTime <= now) {
+            endTime = now + nextEnd;
+        }
+        armDeadline();
+        metrics.recordTransition(now - completedAt);
+        TimerTransitionEvent.emit(completed, getTimerMode(), breakCount, completedAt, now);
+        notifyListeners(completed, completedLength, breakCount, completedAt);
+    }
+
+    private void notifyListeners(TimerEventType type, long duration, int eventBreakCount, long time) {
+        if (publisher.hasSubscribers()) {
+            publisher.publish(snapshot(type, clock.millis()));
+        }
+        if (listeners.isEmpty()) {
+            return;
+        }
+        TimerEvent event = new TimerEvent(type, duration, eventBreakCount, time);
+        for (TimerListener listener : listeners) {
+            listener.timerChanged(event);
+        }
+    }
+
+    private TimerSnapshot snapshot(TimerEventType cause, long now) {
+        long remaining;
+        if (!isTimerRunning) {
+            remaining = getPlan().getLength(phase);
+        } else {
+            remaining = Math.max(0, endTime - ((isPause) ? pauseStart : now));
+        }
+        return new TimerSnapshot(cause, getTimerMode(), remaining, breakCount, isTimerRunning, isPause, now);
+    }
+}
@@ -0,0 +1,55 @@
+package ancientmeme.pomodoro;
+
+import ancientmeme.pomodoro.util.TimerEventType;
+
+/**
+ * Describes one change of a PomodoroTimer
+ */
+public final class TimerEvent {
+    private final TimerEventType type;
+    private final long duration;
+    private final int breakCount;
+    private final long time;
+
+    /**
+     * @param type what happened to the timer
+     * @param duration length in milliseconds of the completed phase, or
+     *                 the elapsed time of the phase for pauses and stops,
+     *                 or the pause length when resuming
+     * @param breakCount the amount of breaks taken when the event happened
+     * @param time when the event took effect on the timer's clock, for a
+     *             completed phase this is its deadline
+     */
+    public TimerEvent(TimerEventType type, long duration, int breakCount, long time) {
+        this.type = type;
+        this.duration = duration;
+        this.breakCount = breakCount;
+        this.time = time;
+    }
+
+    public TimerEventType getType() {
+        return type;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public int getBreakCount() {
+        return breakCount;
+    }
+
+    /**
+     * Gets when the event took effect, comparing it with the timer's
+     * clock tells how late a listener handles the event
+     * @return milliseconds on the clock of the timer
+     */
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimerEvent[%s, %dms, break %d, at %d]", type, duration, breakCount, time);
+    }
+}
@@ -0,0 +1,11 @@
+package ancientmeme.pomodoro;
+
+public interface TimerListener {
+    /**
+     * Called on the thread that changed the timer, right after the
+     * change. Implementations must return quickly and never block,
+     * transitions of the timer wait for them.
+     * @param event what happened to the timer
+     */
+    void timerChanged(TimerEvent event);
+}
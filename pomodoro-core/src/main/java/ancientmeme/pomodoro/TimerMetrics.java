@@ -0,0 +1,125 @@
+package ancientmeme.pomodoro;
+
+import ancientmeme.pomodoro.monitoring.LatencyHistogram;
+
+/**
+ * Counters of how a PomodoroTimer has run and how punctually. Written by
+ * the timer and its listeners under the timer's lock, read from any thread.
+ */
+public final class TimerMetrics {
+    // Later than an hour is counted as an hour, the maximum stays exact
+    private static final long HIGHEST_LATENESS = 60 * PomodoroTimer.MINUTE;
+    private volatile long tickCount;
+    private volatile long transitionCount;
+    // How late the wheel ran the last transition after its deadline
+    private volatile long lastTransitionLateness;
+    // Every wheel callback, ticks and deadlines, after its scheduled time
+    private final LatencyHistogram wakeupLateness;
+    // How far each session or break ended from the end it was planned for
+    private final LatencyHistogram transitionLateness;
+    private volatile long alarmCount;
+    private volatile long lastAlarmLatency;
+    // From the end of a phase until its alarm started playing
+    private final LatencyHistogram alarmLatency;
+
+    TimerMetrics() {
+        lastTransitionLateness = -1;
+        lastAlarmLatency = -1;
+        wakeupLateness = new LatencyHistogram(HIGHEST_LATENESS);
+        transitionLateness = new LatencyHistogram(HIGHEST_LATENESS);
+        alarmLatency = new LatencyHistogram(HIGHEST_LATENESS);
+    }
+
+    /**
+     * @return how many second ticks were published to subscribers
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return how many sessions and breaks completed
+     */
+    public long getTransitionCount() {
+        return transitionCount;
+    }
+
+    /**
+     * @return milliseconds the last transition ran after its deadline, -1 if none ran yet
+     */
+    public long getLastTransitionLateness() {
+        return lastTransitionLateness;
+    }
+
+    public long getMaxTransitionLateness() {
+        return transitionLateness.getMax();
+    }
+
+    /**
+     * Gets how late the timing wheel ran the timer's ticks and deadlines,
+     * which grows under GC pauses or CPU contention
+     * @return histogram of lateness in milliseconds
+     */
+    public LatencyHistogram getWakeupLateness() {
+        return wakeupLateness;
+    }
+
+    /**
+     * Gets how far each session or break ended from its planned end.
+     * Deadlines follow the original schedule, so this does not grow
+     * over back-to-back cycles.
+     * @return histogram of drift in milliseconds
+     */
+    public LatencyHistogram getTransitionLateness() {
+        return transitionLateness;
+    }
+
+    /**
+     * @return how many times an alarm played for a completed phase
+     */
+    public long getAlarmCount() {
+        return alarmCount;
+    }
+
+    /**
+     * @return milliseconds from the end of the last phase until its alarm started, -1 if none played yet
+     */
+    public long getLastAlarmLatency() {
+        return lastAlarmLatency;
+    }
+
+    /**
+     * Gets how long after the end of each phase its alarm started. The
+     * audio device adds its own output latency on top of this.
+     * @return histogram of latency in milliseconds
+     */
+    public LatencyHistogram getAlarmLatency() {
+        return alarmLatency;
+    }
+
+    /**
+     * Record that an alarm started playing, called by the alarm
+     * listener from the transition it rings for
+     * @param latency milliseconds since the end of the phase
+     */
+    public void recordAlarm(long latency) {
+        alarmCount += 1;
+        lastAlarmLatency = latency;
+        alarmLatency.record(latency);
+    }
+
+    void recordTick(long lateness) {
+        tickCount += 1;
+        wakeupLateness.record(lateness);
+    }
+
+    void recordDeadline(long lateness) {
+        wakeupLateness.record(lateness);
+    }
+
+    void recordTransition(long lateness) {
+        transitionCount += 1;
+        lastTransitionLateness = lateness;
+        transitionLateness.record(lateness);
+    }
+}
@@ -0,0 +1,159 @@
+package ancientmeme.pomodoro;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Publishes the snapshots of a PomodoroTimer: every start, pause, resume,
+ * stop, completed phase and every whole second of remaining time. A new
+ * subscriber first receives the current state.
+ *
+ * Snapshots are delivered on the thread that produced them, or on the
+ * thread that requests more, so no thread is added per subscriber. A
+ * subscriber that has no outstanding demand keeps only the latest
+ * snapshot, older ones are dropped since each snapshot holds the whole
+ * state. Like TimerListener, onNext must return quickly and never block.
+ */
+public class TimerPublisher implements Flow.Publisher<TimerSnapshot> {
+    private final PomodoroTimer timer;
+    private final List<ConflatingSubscription> subscriptions;
+
+    TimerPublisher(PomodoroTimer timerRef) {
+        timer = timerRef;
+        subscriptions = new CopyOnWriteArrayList<>();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super TimerSnapshot> subscriber) {
+        ConflatingSubscription subscription = new ConflatingSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        // Snapshots are published under the timer's lock, holding it here
+        // keeps a publish from slipping between the current state and the add
+        synchronized (timer) {
+            if (subscription.isCancelled) {
+                return;
+            }
+            subscriptions.add(subscription);
+            subscription.offer(timer.getSnapshot());
+            // Ticks are only scheduled while someone is listening
+            timer.subscribersChanged();
+        }
+    }
+
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Hand a snapshot to every subscriber
+     * @param snapshot the new state of the timer
+     */
+    void publish(TimerSnapshot snapshot) {
+        for (ConflatingSubscription subscription : subscriptions) {
+            subscription.offer(snapshot);
+        }
+    }
+
+    /**
+     * Complete every subscription, no snapshot is published afterwards
+     */
+    void close() {
+        for (ConflatingSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+        subscriptions.clear();
+    }
+
+    /**
+     * Holds at most one undelivered snapshot, a newer one replaces it
+     */
+    private class ConflatingSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super TimerSnapshot> subscriber;
+        private final AtomicReference<TimerSnapshot> latest;
+        private final AtomicLong demand;
+        // Only the thread that raises it from 0 delivers, others leave their work to it
+        private final AtomicInteger drainers;
+        private volatile boolean isCancelled;
+
+        ConflatingSubscription(Flow.Subscriber<? super TimerSnapshot> subscriberRef) {
+            subscriber = subscriberRef;
+            latest = new AtomicReference<>();
+            demand = new AtomicLong();
+            drainers = new AtomicInteger();
+            isCancelled = false;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                cancel();
+                subscriber.onError(new IllegalArgumentException("Requested " + n + " snapshots"));
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> {
+                long sum = current + added;
+                // Unbounded once it overflows
+                return (sum < 0) ? Long.MAX_VALUE : sum;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            isCancelled = true;
+            latest.set(null);
+            // The last subscriber leaving disarms the tick right away
+            if (subscriptions.remove(this) && subscriptions.isEmpty()) {
+                timer.subscribersChanged();
+            }
+        }
+
+        void offer(TimerSnapshot snapshot) {
+            latest.set(snapshot);
+            drain();
+        }
+
+        void complete() {
+            if (!isCancelled) {
+                isCancelled = true;
+                subscriber.onComplete();
+            }
+        }
+
+        private void drain() {
+            if (drainers.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                while (!isCancelled && demand.get() > 0) {
+                    TimerSnapshot snapshot = latest.getAndSet(null);
+                    if (snapshot == null) {
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    deliver(snapshot);
+                }
+            } while (drainers.decrementAndGet() != 0);
+        }
+
+        private void deliver(TimerSnapshot snapshot) {
+            try {
+                subscriber.onNext(snapshot);
+            } catch (RuntimeException e) {
+                // A failing subscriber must not break the timer
+                cancel();
+                System.err.format("Timer subscriber failed: %s%n", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package ancientmeme.pomodoro;
+
+import ancientmeme.pomodoro.util.TimerEventType;
+import ancientmeme.pomodoro.util.TimerMode;
+
+/**
+ * The complete state of a PomodoroTimer at one moment. A subscriber that
+ * only receives the latest snapshot still knows everything it needs to
+ * show, so snapshots can be conflated for slow subscribers.
+ */
+public final class TimerSnapshot {
+    private final TimerEventType cause;
+    private final TimerMode mode;
+    private final long remainingTime;
+    private final int breakCount;
+    private final boolean isTimerRunning;
+    private final boolean isPause;
+    private final long time;
+
+    /**
+     * @param cause what produced the snapshot, null for the state a new subscriber starts with
+     * @param mode the mode of the timer
+     * @param remainingTime remaining milliseconds of the current session or break
+     * @param breakCount the amount of breaks so far
+     * @param isTimerRunning is the timer running
+     * @param isPause is the timer paused
+     * @param time when the snapshot was taken on the timer's clock
+     */
+    public TimerSnapshot(TimerEventType cause, TimerMode mode, long remainingTime, int breakCount,
+                         boolean isTimerRunning, boolean isPause, long time) {
+        this.cause = cause;
+        this.mode = mode;
+        this.remainingTime = remainingTime;
+        this.breakCount = breakCount;
+        this.isTimerRunning = isTimerRunning;
+        this.isPause = isPause;
+        this.time = time;
+    }
+
+    public TimerEventType getCause() {
+        return cause;
+    }
+
+    public TimerMode getMode() {
+        return mode;
+    }
+
+    public long getRemainingTime() {
+        return remainingTime;
+    }
+
+    /**
+     * Gets the remaining time as shown on a countdown, a second is
+     * shown until it has fully passed
+     * @return remaining whole seconds, rounded up
+     */
+    public long getRemainingSeconds() {
+        return (remainingTime + 999) / 1000;
+    }
+
+    public int getBreakCount() {
+        return breakCount;
+    }
+
+    public boolean isTimerRunning() {
+        return isTimerRunning;
+    }
+
+    public boolean isPause() {
+        return isPause;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimerSnapshot[%s, %s, %dms, break %d, running %b, paused %b]",
+                cause, mode, remainingTime, breakCount, isTimerRunning, isPause);
+    }
+}
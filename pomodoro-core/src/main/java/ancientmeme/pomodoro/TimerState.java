@@ -0,0 +1,72 @@
+package ancientmeme.pomodoro;
+
+import ancientmeme.pomodoro.util.TimerMode;
+
+/**
+ * What a PomodoroTimer needs to carry on where it left off after the
+ * application restarts. Unlike a TimerSnapshot it holds no time of the
+ * timer's clock, which starts over with every process, only durations.
+ */
+public final class TimerState {
+    private final boolean isTimerRunning;
+    private final boolean isPause;
+    private final TimerMode mode;
+    private final int phase;
+    private final int breakCount;
+    private final long phaseLength;
+    private final long remainingTime;
+
+    /**
+     * @param isTimerRunning is the timer running
+     * @param isPause is the timer paused
+     * @param mode the mode of the current phase
+     * @param phase number of the current phase in the timer's CyclePlan
+     * @param breakCount the amount of breaks so far
+     * @param phaseLength length of the current session or break in milliseconds
+     * @param remainingTime remaining milliseconds of the current session or break
+     */
+    public TimerState(boolean isTimerRunning, boolean isPause, TimerMode mode, int phase,
+                      int breakCount, long phaseLength, long remainingTime) {
+        this.isTimerRunning = isTimerRunning;
+        this.isPause = isPause;
+        this.mode = mode;
+        this.phase = phase;
+        this.breakCount = breakCount;
+        this.phaseLength = phaseLength;
+        this.remainingTime = remainingTime;
+    }
+
+    public boolean isTimerRunning() {
+        return isTimerRunning;
+    }
+
+    public boolean isPause() {
+        return isPause;
+    }
+
+    public TimerMode getMode() {
+        return mode;
+    }
+
+    public int getPhase() {
+        return phase;
+    }
+
+    public int getBreakCount() {
+        return breakCount;
+    }
+
+    public long getPhaseLength() {
+        return phaseLength;
+    }
+
+    public long getRemainingTime() {
+        return remainingTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TimerState[%s, phase %d, %dms of %dms, break %d, running %b, paused %b]",
+                mode, phase, remainingTime, phaseLength, breakCount, isTimerRunning, isPause);
+    }
+}
@@ -0,0 +1,258 @@
+package ancientmeme.pomodoro.control;
+
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.http.SnapshotJson;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Unix domain socket through which later launches of the application
+ * talk to the instance that is already running. A client connects,
+ * writes one command line and reads one reply line:
+ *
+ *   status, start, pause, resume, stop   answers the timer state as JSON
+ *   show                                 brings the running window to the front
+ *
+ * Only the first instance listens, so a second launch forwards its
+ * command and exits without starting JavaFX or a second timer. The
+ * socket file lives in the user's home, other users cannot connect.
+ *
+ * Commands are answered one at a time on the channel's own thread, so a
+ * client never occupies a thread anyone else needs. Each exchange has a
+ * deadline on both ends: a client that does not send its line within
+ * REQUEST_TIMEOUT is disconnected, and send gives up after REPLY_TIMEOUT.
+ */
+public class CommandChannel implements AutoCloseable {
+    public static final String SHOW = "show";
+    // A command line is a single short word
+    private static final int MAX_REQUEST = 64;
+    private static final long REQUEST_TIMEOUT = PomodoroTimer.SECOND;
+    private static final long REPLY_TIMEOUT = 5 * PomodoroTimer.SECOND;
+    private final Path socketFile;
+    private final ServerSocketChannel server;
+    private PomodoroTimer timer;
+    private volatile Runnable showHandler;
+
+    private CommandChannel(Path socketFileRef, ServerSocketChannel serverRef) {
+        socketFile = socketFileRef;
+        server = serverRef;
+    }
+
+    /**
+     * Gets where the running instance listens
+     * @return the socket file in the application's data directory
+     */
+    public static Path defaultSocketFile() {
+        return Paths.get(System.getProperty("user.home"), ".pomodoro", "pomodoro.sock");
+    }
+
+    /**
+     * Claim the socket, which makes this the running instance. Commands
+     * wait until serve is called. A socket file left behind by an
+     * instance that crashed is replaced.
+     * @param socketFile where to listen
+     * @return the listening channel
+     * @throws IOException if another instance is listening, see isRunning,
+     *                     or the socket cannot be bound
+     */
+    public static CommandChannel listen(Path socketFile) throws IOException {
+        Files.createDirectories(socketFile.toAbsolutePath().getParent());
+        if (Files.exists(socketFile)) {
+            if (isRunning(socketFile)) {
+                throw new IOException("Another instance is listening on " + socketFile);
+            }
+            Files.delete(socketFile);
+        }
+
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            server.bind(UnixDomainSocketAddress.of(socketFile));
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+        return new CommandChannel(socketFile, server);
+    }
+
+    /**
+     * Checks whether an instance answers on the socket
+     * @param socketFile where the running instance listens
+     * @return is another instance running
+     */
+    public static boolean isRunning(Path socketFile) {
+        try (SocketChannel probe = SocketChannel.open(UnixDomainSocketAddress.of(socketFile))) {
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Start answering commands, can only be called once
+     * @param timerRef the timer the commands control
+     */
+    public synchronized void serve(PomodoroTimer timerRef) {
+        if (timer != null) {
+            throw new IllegalStateException("The command channel is already serving");
+        }
+        timer = timerRef;
+        Thread acceptor = new Thread(this::acceptClients, "pomodoro-command-channel");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Send a command to the running instance
+     * @param socketFile where the running instance listens
+     * @param command the command line to send
+     * @return the reply of the running instance
+     * @throws IOException if no instance is listening
+     */
+    public static String send(Path socketFile, String command) throws IOException {
+        try (SocketChannel client = SocketChannel.open(UnixDomainSocketAddress.of(socketFile))) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REPLY_TIMEOUT);
+            write(client, command + "\n", deadline);
+            client.shutdownOutput();
+            return readLine(client, Integer.MAX_VALUE, deadline);
+        }
+    }
+
+    /**
+     * Set what the show command does, it is ignored until set
+     * @param handler brings the window to the front, may be called from any thread
+     */
+    public void setShowHandler(Runnable handler) {
+        showHandler = handler;
+    }
+
+    /**
+     * Stop listening and remove the socket file
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+        Files.deleteIfExists(socketFile);
+    }
+
+    /**
+     * Accept loop, a slow client holds up the next one for at most
+     * REQUEST_TIMEOUT
+     */
+    private void acceptClients() {
+        while (true) {
+            SocketChannel client;
+            try {
+                client = server.accept();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                System.err.format("Command channel stopped: %s%n", e.getMessage());
+                return;
+            }
+            answer(client);
+        }
+    }
+
+    private void answer(SocketChannel client) {
+        try (client) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REQUEST_TIMEOUT);
+            String request = readLine(client, MAX_REQUEST, deadline).trim();
+            // Nothing was sent, such as by isRunning probing the socket
+            if (request.isEmpty()) {
+                return;
+            }
+            write(client, execute(request) + "\n", deadline);
+        } catch (IOException e) {
+            System.err.format("Cannot answer command: %s%n", e.getMessage());
+        }
+    }
+
+    private String execute(String request) {
+        if (request.equalsIgnoreCase(SHOW)) {
+            Runnable handler = showHandler;
+            if (handler != null) {
+                handler.run();
+            }
+            return SnapshotJson.toJson(timer.getSnapshot());
+        }
+        TimerCommand command = TimerCommand.fromName(request);
+        if (command == null) {
+            return "{\"error\":\"Unknown command\"}";
+        }
+        command.applyTo(timer);
+        return SnapshotJson.toJson(timer.getSnapshot());
+    }
+
+    /**
+     * Reads up to the first line break, the end of the stream or the limit
+     * @throws IOException if the deadline passes first
+     */
+    private static String readLine(SocketChannel channel, int limit, long deadline) throws IOException {
+        channel.configureBlocking(false);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        try (Selector selector = Selector.open()) {
+            channel.register(selector, SelectionKey.OP_READ);
+            while (line.size() < limit) {
+                int read = channel.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                if (read == 0) {
+                    await(selector, deadline);
+                    continue;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        return line.toString(StandardCharsets.UTF_8);
+                    }
+                    line.write(b);
+                }
+                buffer.clear();
+            }
+        }
+        return line.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the whole text
+     * @throws IOException if the deadline passes first
+     */
+    private static void write(SocketChannel channel, String text, long deadline) throws IOException {
+        channel.configureBlocking(false);
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        try (Selector selector = Selector.open()) {
+            channel.register(selector, SelectionKey.OP_WRITE);
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    await(selector, deadline);
+                }
+            }
+        }
+    }
+
+    private static void await(Selector selector, long deadline) throws IOException {
+        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+        if (remaining <= 0) {
+            throw new IOException("Timed out");
+        }
+        selector.select(remaining);
+        selector.selectedKeys().clear();
+    }
+}
@@ -0,0 +1,61 @@
+package ancientmeme.pomodoro.control;
+
+import ancientmeme.pomodoro.PomodoroTimer;
+
+import java.util.Locale;
+
+/**
+ * The commands other programs may send to a running timer, shared by
+ * the HTTP API and the command socket.
+ */
+public enum TimerCommand {
+    STATUS,
+    START,
+    PAUSE,
+    RESUME,
+    STOP;
+
+    /**
+     * Perform the command, STATUS changes nothing
+     * @param timer the timer to control
+     */
+    public void applyTo(PomodoroTimer timer) {
+        switch (this) {
+            case START:
+                timer.startTimer();
+                break;
+            case PAUSE:
+                timer.pauseTimer();
+                break;
+            case RESUME:
+                timer.resumeTimer();
+                break;
+            case STOP:
+                timer.stopTimer();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return the name used on the command line and in URLs
+     */
+    public String getName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Finds the command with the given name
+     * @param name the name, in any case
+     * @return the command, null if there is none with that name
+     */
+    public static TimerCommand fromName(String name) {
+        for (TimerCommand command : values()) {
+            if (command.name().equalsIgnoreCase(name)) {
+                return command;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,243 @@
+package ancientmeme.pomodoro.history;
+
+import ancientmeme.pomodoro.TimerEvent;
+import ancientmeme.pomodoro.TimerListener;
+import ancientmeme.pomodoro.util.TimerEventType;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Focus statistics kept in primitive arrays indexed by day. Every timer
+ * event updates the arrays in O(1), so queries never go back to the
+ * journal; the journal is only replayed once when the statistics are
+ * loaded. Focus time is the time spent in sessions, including sessions
+ * that were stopped before they completed.
+ */
+public class FocusStatistics implements TimerListener {
+    private static final int INITIAL_DAYS = 512;
+    private final ZoneId zone;
+    private final LongSupplier wallClock;
+    // Epoch day of index 0 of the arrays, Long.MIN_VALUE until the first event
+    private long firstDay;
+    private long[] focusMillis;
+    private int[] completedSessions;
+    private int[] abandonedSessions;
+    // Replaying the events tells whether the timer is in a session
+    private boolean isInSession;
+    // Streak of consecutive days with a completed session
+    private long streakLastDay;
+    private int streakLength;
+    private int longestStreak;
+    private long totalCompleted;
+    private long totalAbandoned;
+
+    public FocusStatistics() {
+        this(ZoneId.systemDefault(), System::currentTimeMillis);
+    }
+
+    /**
+     * @param zone the time zone deciding where a day starts
+     * @param wallClock source of the epoch milliseconds of live events
+     */
+    public FocusStatistics(ZoneId zone, LongSupplier wallClock) {
+        this.zone = zone;
+        this.wallClock = wallClock;
+        firstDay = Long.MIN_VALUE;
+        focusMillis = new long[INITIAL_DAYS];
+        completedSessions = new int[INITIAL_DAYS];
+        abandonedSessions = new int[INITIAL_DAYS];
+        isInSession = false;
+        streakLastDay = Long.MIN_VALUE;
+    }
+
+    /**
+     * Rebuild the statistics from the records of a journal
+     * @param reader the journal to replay
+     */
+    public void replay(JournalReader reader) {
+        while (reader.hasNext()) {
+            record(reader.next());
+        }
+    }
+
+    @Override
+    public void timerChanged(TimerEvent event) {
+        record(wallClock.getAsLong(), event.getType(), event.getDuration());
+    }
+
+    public void record(SessionRecord record) {
+        record(record.getEpochMillis(), record.getType(), record.getDuration());
+    }
+
+    /**
+     * Update the statistics with one timer event
+     * @param epochMillis when the event happened
+     * @param type what happened
+     * @param duration the duration of the event, see TimerEvent
+     */
+    public synchronized void record(long epochMillis, TimerEventType type, long duration) {
+        long day = toEpochDay(epochMillis);
+        switch (type) {
+            case STARTED:
+            case BREAK_COMPLETED:
+            case LONG_BREAK_COMPLETED:
+                isInSession = true;
+                break;
+            case SESSION_COMPLETED:
+                int index = indexOf(day);
+                focusMillis[index] += duration;
+                completedSessions[index] += 1;
+                totalCompleted += 1;
+                extendStreak(day);
+                isInSession = false;
+                break;
+            case STOPPED:
+                if (isInSession) {
+                    int stoppedIndex = indexOf(day);
+                    focusMillis[stoppedIndex] += duration;
+                    abandonedSessions[stoppedIndex] += 1;
+                    totalAbandoned += 1;
+                }
+                isInSession = false;
+                break;
+            default:
+                // Pauses do not change any aggregate
+                break;
+        }
+    }
+
+    public synchronized long getFocusMillis(LocalDate date) {
+        return sumFocus(date.toEpochDay(), 1);
+    }
+
+    /**
+     * Gets the focus time of the week containing the date
+     * @param date any day of the week, weeks start on Monday
+     * @return focus time in milliseconds
+     */
+    public synchronized long getWeekFocusMillis(LocalDate date) {
+        LocalDate monday = date.minusDays(date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue());
+        return sumFocus(monday.toEpochDay(), 7);
+    }
+
+    /**
+     * Gets the focus time of the month containing the date
+     * @param date any day of the month
+     * @return focus time in milliseconds
+     */
+    public synchronized long getMonthFocusMillis(LocalDate date) {
+        return sumFocus(date.withDayOfMonth(1).toEpochDay(), date.lengthOfMonth());
+    }
+
+    public synchronized int getCompletedSessions(LocalDate date) {
+        long day = date.toEpochDay();
+        return isTracked(day) ? completedSessions[(int) (day - firstDay)] : 0;
+    }
+
+    /**
+     * Gets the amount of consecutive days with a completed session that
+     * end today, or yesterday when no session is completed today yet
+     * @param today the current date
+     * @return length of the current streak in days
+     */
+    public synchronized int getCurrentStreak(LocalDate today) {
+        return (today.toEpochDay() - streakLastDay <= 1) ? streakLength : 0;
+    }
+
+    public synchronized int getLongestStreak() {
+        return longestStreak;
+    }
+
+    /**
+     * Gets the share of sessions that ran until the end instead of
+     * being stopped
+     * @return completed sessions over all finished sessions, 0 if there are none
+     */
+    public synchronized double getCompletionRate() {
+        long total = totalCompleted + totalAbandoned;
+        return (total == 0) ? 0 : (double) totalCompleted / total;
+    }
+
+    /**
+     * Copy the focus time of consecutive days into the given array, one
+     * lock for a whole heatmap instead of one per day
+     * @param from the first day to copy
+     * @param out receives the focus milliseconds of from, from + 1, ...
+     */
+    public synchronized void copyFocusMillis(LocalDate from, long[] out) {
+        long day = from.toEpochDay();
+        for (int i = 0; i < out.length; ++i) {
+            out[i] = isTracked(day + i) ? focusMillis[(int) (day + i - firstDay)] : 0;
+        }
+    }
+
+    private long toEpochDay(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    private void extendStreak(long day) {
+        if (day == streakLastDay) {
+            return;
+        }
+        streakLength = (day == streakLastDay + 1) ? streakLength + 1 : 1;
+        streakLastDay = day;
+        longestStreak = Math.max(longestStreak, streakLength);
+    }
+
+    private boolean isTracked(long day) {
+        return firstDay != Long.MIN_VALUE && day >= firstDay && day - firstDay < focusMillis.length;
+    }
+
+    private long sumFocus(long fromDay, int days) {
+        long total = 0;
+        for (long day = fromDay; day < fromDay + days; ++day) {
+            if (isTracked(day)) {
+                total += focusMillis[(int) (day - firstDay)];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gets the array index of a day, growing the arrays when needed
+     */
+    private int indexOf(long day) {
+        if (firstDay == Long.MIN_VALUE) {
+            firstDay = day;
+        }
+        if (day < firstDay) {
+            // The wall clock went back before the first event, shift everything
+            int shift = (int) (firstDay - day);
+            focusMillis = shifted(focusMillis, shift);
+            completedSessions = shifted(completedSessions, shift);
+            abandonedSessions = shifted(abandonedSessions, shift);
+            firstDay = day;
+        }
+
+        int index = (int) (day - firstDay);
+        if (index >= focusMillis.length) {
+            int capacity = Math.max(focusMillis.length * 2, index + 1);
+            focusMillis = Arrays.copyOf(focusMillis, capacity);
+            completedSessions = Arrays.copyOf(completedSessions, capacity);
+            abandonedSessions = Arrays.copyOf(abandonedSessions, capacity);
+        }
+        return index;
+    }
+
+    private static long[] shifted(long[] values, int shift) {
+        long[] result = new long[values.length + shift];
+        System.arraycopy(values, 0, result, shift, values.length);
+        return result;
+    }
+
+    private static int[] shifted(int[] values, int shift) {
+        int[] result = new int[values.length + shift];
+        System.arraycopy(values, 0, result, shift, values.length);
+        return result;
+    }
+}
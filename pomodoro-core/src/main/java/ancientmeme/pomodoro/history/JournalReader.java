@@ -0,0 +1,88 @@
+package ancientmeme.pomodoro.history;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Streams the records of a session journal from the oldest to the newest
+ * through a fixed-size buffer, so years of history can be iterated without
+ * holding more than one buffer of records in memory. A record torn by a
+ * crash at the end of the file is skipped.
+ */
+public class JournalReader implements Iterator<SessionRecord>, Closeable {
+    private static final int BUFFER_RECORDS = 4096;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private SessionRecord next;
+
+    /**
+     * Opens a journal for reading
+     * @param file path of the journal
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public JournalReader(Path file) throws IOException {
+        channel = FileChannel.open(file, READ);
+        try {
+            SessionJournal.checkHeader(channel);
+            channel.position(SessionJournal.HEADER_SIZE);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        buffer = ByteBuffer.allocate(BUFFER_RECORDS * SessionRecord.SIZE);
+        buffer.limit(0);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (buffer.remaining() < SessionRecord.SIZE && !fillBuffer()) {
+                return false;
+            }
+            // Records of unknown types come from newer versions, skip them
+            next = SessionRecord.readFrom(buffer);
+        }
+        return true;
+    }
+
+    @Override
+    public SessionRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SessionRecord record = next;
+        next = null;
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads the next chunk of the file into the buffer
+     * @return is there at least one complete record in the buffer
+     */
+    private boolean fillBuffer() {
+        try {
+            buffer.compact();
+            int bytesRead;
+            do {
+                bytesRead = channel.read(buffer);
+            } while (bytesRead > 0 && buffer.hasRemaining());
+            buffer.flip();
+        } catch (IOException e) {
+            System.err.format("Cannot read session journal: %s%n", e.getMessage());
+            return false;
+        }
+        return buffer.remaining() >= SessionRecord.SIZE;
+    }
+}
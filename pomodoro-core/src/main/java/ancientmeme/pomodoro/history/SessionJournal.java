@@ -0,0 +1,245 @@
+package ancientmeme.pomodoro.history;
+
+import ancientmeme.pomodoro.PomodoroRuntime;
+import ancientmeme.pomodoro.TimerEvent;
+import ancientmeme.pomodoro.TimerListener;
+import ancientmeme.pomodoro.timing.Timeout;
+import ancientmeme.pomodoro.timing.TimingWheel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only journal of every timer event, stored as fixed-size records
+ * after a short header. Appending only queues the record, the queued
+ * records are written in batches on the runtime's I/O executor and
+ * forced to disk at most once per SYNC_INTERVAL, so a timer transition
+ * never waits for the disk and no thread is kept for the journal while
+ * nothing is written. Use JournalReader to stream the records back.
+ */
+public class SessionJournal implements TimerListener, Closeable {
+    static final int MAGIC = 0x504A524E;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    // Longest time a written record may stay out of durable storage
+    private static final long SYNC_INTERVAL = 1000;
+
+    private final FileChannel channel;
+    private final Queue<SessionRecord> queue;
+    private final LongSupplier wallClock;
+    private final Executor executor;
+    private final TimingWheel wheel;
+    // Set while a write of the queue is waiting for the executor
+    private final AtomicBoolean isWriteScheduled;
+    // Guards the channel, the buffer and the sync task
+    private final Object writeLock;
+    private final ByteBuffer buffer;
+    private Timeout syncTask;
+    private volatile boolean isClosed;
+
+    /**
+     * Opens the journal for appending, creating it if needed
+     * @param file path of the journal
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public SessionJournal(Path file) throws IOException {
+        this(file, System::currentTimeMillis);
+    }
+
+    /**
+     * Opens the journal for appending, creating it if needed
+     * @param file path of the journal
+     * @param wallClock source of the epoch milliseconds stamped on records
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public SessionJournal(Path file, LongSupplier wallClock) throws IOException {
+        this(file, wallClock, PomodoroRuntime.shared());
+    }
+
+    /**
+     * Opens the journal for appending, creating it if needed
+     * @param file path of the journal
+     * @param wallClock source of the epoch milliseconds stamped on records
+     * @param runtime writes on its I/O executor, schedules syncs on its wheel
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public SessionJournal(Path file, LongSupplier wallClock, PomodoroRuntime runtime) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        this.wallClock = wallClock;
+        executor = runtime.getIoExecutor();
+        wheel = runtime.getTimingWheel();
+        queue = new ConcurrentLinkedQueue<>();
+        isWriteScheduled = new AtomicBoolean(false);
+        writeLock = new Object();
+        buffer = ByteBuffer.allocate(64 * SessionRecord.SIZE);
+        channel = FileChannel.open(file, READ, WRITE, CREATE);
+        try {
+            prepareForAppend();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Records the event with the current wall-clock time
+     */
+    @Override
+    public void timerChanged(TimerEvent event) {
+        append(new SessionRecord(wallClock.getAsLong(), event.getType(),
+                                 event.getDuration(), event.getBreakCount()));
+    }
+
+    /**
+     * Queues a record to be written, never blocks
+     * @param record the record to append
+     */
+    public void append(SessionRecord record) {
+        if (isClosed) {
+            return;
+        }
+        queue.offer(record);
+        // One scheduled write takes every record queued until it runs
+        if (isWriteScheduled.compareAndSet(false, true)) {
+            executor.execute(this::writeQueued);
+        }
+    }
+
+    /**
+     * Writes and syncs every queued record, then closes the file
+     */
+    @Override
+    public void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        synchronized (writeLock) {
+            try {
+                writeBatch();
+                channel.force(false);
+            } finally {
+                if (syncTask != null) {
+                    syncTask.cancel();
+                    syncTask = null;
+                }
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Checks the header of an existing journal, or writes one for a new
+     * file, and drops a record torn by a crash in the middle of a write
+     */
+    private void prepareForAppend() throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(SessionRecord.SIZE).putInt(0).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+            size = HEADER_SIZE;
+        } else {
+            checkHeader(channel);
+        }
+
+        long completeSize = HEADER_SIZE + (size - HEADER_SIZE) / SessionRecord.SIZE * SessionRecord.SIZE;
+        if (completeSize != size) {
+            channel.truncate(completeSize);
+        }
+        channel.position(completeSize);
+    }
+
+    static void checkHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        header.flip();
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC
+                || header.getInt() != VERSION || header.getInt() != SessionRecord.SIZE) {
+            throw new IOException("Not a session journal of version " + VERSION);
+        }
+    }
+
+    /**
+     * Runs on the I/O executor, writes whatever is queued in one go and
+     * arms a sync SYNC_INTERVAL after the first unsynced write
+     */
+    private void writeQueued() {
+        // Cleared first, a record queued during the write schedules the next one
+        isWriteScheduled.set(false);
+        synchronized (writeLock) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                if (writeBatch() && syncTask == null) {
+                    syncTask = wheel.schedule(() -> executor.execute(this::sync), SYNC_INTERVAL);
+                }
+            } catch (IOException e) {
+                System.err.format("Cannot write session journal: %s%n", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs on the I/O executor, forces the written records to disk
+     */
+    private void sync() {
+        synchronized (writeLock) {
+            syncTask = null;
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                channel.force(false);
+            } catch (IOException e) {
+                System.err.format("Cannot sync session journal: %s%n", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes every queued record, should be called holding the write lock
+     * @return was anything written
+     */
+    private boolean writeBatch() throws IOException {
+        boolean isWritten = false;
+        buffer.clear();
+        for (SessionRecord record = queue.poll(); record != null; record = queue.poll()) {
+            if (buffer.remaining() < SessionRecord.SIZE) {
+                writeFully();
+            }
+            record.writeTo(buffer);
+            isWritten = true;
+        }
+        writeFully();
+        return isWritten;
+    }
+
+    private void writeFully() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
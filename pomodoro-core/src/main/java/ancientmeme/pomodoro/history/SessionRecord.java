@@ -0,0 +1,76 @@
+package ancientmeme.pomodoro.history;
+
+import ancientmeme.pomodoro.util.TimerEventType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One entry of the session journal. Every record has the same size on
+ * disk, all values big-endian:
+ *   0  long  wall-clock time of the event, milliseconds since the epoch
+ *   8  long  duration of the event in milliseconds, see TimerEvent
+ *   16 int   amount of breaks taken when the event happened
+ *   20 byte  TimerEventType ordinal
+ *   21 3 bytes padding
+ */
+public final class SessionRecord {
+    public static final int SIZE = 24;
+    private final long epochMillis;
+    private final TimerEventType type;
+    private final long duration;
+    private final int breakCount;
+
+    public SessionRecord(long epochMillis, TimerEventType type, long duration, int breakCount) {
+        this.epochMillis = epochMillis;
+        this.type = type;
+        this.duration = duration;
+        this.breakCount = breakCount;
+    }
+
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    public TimerEventType getType() {
+        return type;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public int getBreakCount() {
+        return breakCount;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        buffer.putLong(epochMillis);
+        buffer.putLong(duration);
+        buffer.putInt(breakCount);
+        buffer.put((byte) type.ordinal());
+        buffer.put((byte) 0).put((byte) 0).put((byte) 0);
+    }
+
+    /**
+     * Read the record at the buffer's position
+     * @return the record, null if its type is unknown to this version
+     */
+    static SessionRecord readFrom(ByteBuffer buffer) {
+        long epochMillis = buffer.getLong();
+        long duration = buffer.getLong();
+        int breakCount = buffer.getInt();
+        int typeIndex = buffer.get() & 0xFF;
+        buffer.position(buffer.position() + 3);
+
+        TimerEventType[] types = TimerEventType.values();
+        if (typeIndex >= types.length) {
+            return null;
+        }
+        return new SessionRecord(epochMillis, types[typeIndex], duration, breakCount);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SessionRecord[%d, %s, %dms, break %d]", epochMillis, type, duration, breakCount);
+    }
+}
@@ -0,0 +1,255 @@
+package ancientmeme.pomodoro.history;
+
+import ancientmeme.pomodoro.PomodoroRuntime;
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerEvent;
+import ancientmeme.pomodoro.TimerListener;
+import ancientmeme.pomodoro.TimerState;
+import ancientmeme.pomodoro.util.TimerMode;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Keeps the state of a running timer on disk, so a crash or logout does
+ * not lose the current session. The state is written on every start,
+ * pause, resume, stop and completed phase, never on second ticks.
+ *
+ * The file holds two slots written in turn, each with a sequence number
+ * and a CRC32. A write torn by a crash only breaks the slot it went to,
+ * reading picks the valid slot with the highest sequence number.
+ *
+ * Slot layout, all values big-endian:
+ *   0  int  magic "PSTA"
+ *   4  int  format version
+ *   8  long sequence number of the write
+ *   16 long epoch milliseconds when the state was saved
+ *   24 long remaining time of the phase
+ *   32 long length of the phase
+ *   40 int  break count
+ *   44 int  flags: running, paused
+ *   48 int  mode, the ordinal of its TimerMode
+ *   52 int  number of the phase in the timer's plan
+ *   56 int  CRC32 of the bytes above
+ */
+public class TimerStateFile implements TimerListener, Closeable {
+    private static final int MAGIC = 0x50535441;
+    private static final int VERSION = 2;
+    private static final int CHECKED_SIZE = 56;
+    private static final int SLOT_SIZE = 64;
+    private static final int RUNNING = 1;
+    private static final int PAUSE = 2;
+
+    private final PomodoroTimer timer;
+    private final LongSupplier wallClock;
+    private final Executor executor;
+    private final FileChannel channel;
+    // Only the newest state waits to be written, older ones are outdated
+    private final AtomicReference<ByteBuffer> pending;
+    private final AtomicBoolean isWriteScheduled;
+    // Guards the channel and the sequence number
+    private final Object writeLock;
+    private long sequence;
+    private volatile boolean isClosed;
+
+    /**
+     * Opens the state file, creating it if needed
+     * @param file path of the state file
+     * @param timerRef the timer whose state is kept
+     * @throws IOException if the file cannot be opened
+     */
+    public TimerStateFile(Path file, PomodoroTimer timerRef) throws IOException {
+        this(file, timerRef, System::currentTimeMillis, PomodoroRuntime.shared());
+    }
+
+    /**
+     * Opens the state file, creating it if needed
+     * @param file path of the state file
+     * @param timerRef the timer whose state is kept
+     * @param wallClock source of epoch milliseconds, tells how long the application was away
+     * @param runtime writes on its I/O executor
+     * @throws IOException if the file cannot be opened
+     */
+    public TimerStateFile(Path file, PomodoroTimer timerRef, LongSupplier wallClock, PomodoroRuntime runtime)
+            throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        timer = timerRef;
+        this.wallClock = wallClock;
+        executor = runtime.getIoExecutor();
+        pending = new AtomicReference<>();
+        isWriteScheduled = new AtomicBoolean(false);
+        writeLock = new Object();
+        channel = FileChannel.open(file, READ, WRITE, CREATE);
+        ByteBuffer newest = readNewestSlot();
+        sequence = (newest == null) ? 0 : newest.getLong(8) + 1;
+    }
+
+    /**
+     * Puts the timer back into the last saved state, should be called
+     * before the timer is started or shown
+     * @return was a saved state found
+     * @throws IOException if the file cannot be read
+     */
+    public boolean restore() throws IOException {
+        ByteBuffer slot;
+        synchronized (writeLock) {
+            slot = readNewestSlot();
+        }
+        if (slot == null) {
+            return false;
+        }
+
+        int flags = slot.getInt(44);
+        TimerMode[] modes = TimerMode.values();
+        int mode = slot.getInt(48);
+        if (mode < 0 || mode >= modes.length) {
+            return false;
+        }
+        TimerState state = new TimerState((flags & RUNNING) != 0, (flags & PAUSE) != 0,
+                modes[mode], slot.getInt(52), slot.getInt(40), slot.getLong(32), slot.getLong(24));
+        // A wall clock set back must not add time to the phase
+        long elapsed = Math.max(0, wallClock.getAsLong() - slot.getLong(16));
+        timer.restoreState(state, elapsed);
+        return true;
+    }
+
+    /**
+     * Saves the state of the timer after the change, the write itself
+     * runs on the I/O executor
+     */
+    @Override
+    public void timerChanged(TimerEvent event) {
+        save();
+    }
+
+    /**
+     * Saves the current state of the timer, never blocks
+     */
+    public void save() {
+        if (isClosed) {
+            return;
+        }
+        // Listeners run under the timer's lock, the state is consistent with the event
+        pending.set(encode(timer.getState(), wallClock.getAsLong()));
+        if (isWriteScheduled.compareAndSet(false, true)) {
+            executor.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Writes the pending state, then closes the file
+     */
+    @Override
+    public void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        synchronized (writeLock) {
+            try {
+                write(pending.getAndSet(null));
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Runs on the I/O executor
+     */
+    private void writePending() {
+        // Cleared first, a state saved during the write schedules the next one
+        isWriteScheduled.set(false);
+        synchronized (writeLock) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                write(pending.getAndSet(null));
+            } catch (IOException e) {
+                System.err.format("Cannot write timer state: %s%n", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes the slot the older state is in and forces it to disk,
+     * should be called holding the write lock
+     */
+    private void write(ByteBuffer slot) throws IOException {
+        if (slot == null) {
+            return;
+        }
+        slot.putLong(8, sequence);
+        CRC32 crc = new CRC32();
+        crc.update(slot.array(), 0, CHECKED_SIZE);
+        slot.putInt(CHECKED_SIZE, (int) crc.getValue());
+
+        long position = (sequence % 2) * SLOT_SIZE;
+        slot.clear();
+        while (slot.hasRemaining()) {
+            channel.write(slot, position + slot.position());
+        }
+        channel.force(false);
+        sequence += 1;
+    }
+
+    private static ByteBuffer encode(TimerState state, long savedAt) {
+        int flags = (state.isTimerRunning() ? RUNNING : 0) | (state.isPause() ? PAUSE : 0);
+        ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+        slot.putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putLong(16, savedAt)
+                .putLong(24, state.getRemainingTime())
+                .putLong(32, state.getPhaseLength())
+                .putInt(40, state.getBreakCount())
+                .putInt(44, flags)
+                .putInt(48, state.getMode().ordinal())
+                .putInt(52, state.getPhase());
+        return slot;
+    }
+
+    /**
+     * @return the valid slot with the highest sequence number, null if neither is valid
+     */
+    private ByteBuffer readNewestSlot() throws IOException {
+        ByteBuffer newest = null;
+        for (int i = 0; i < 2; ++i) {
+            ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+            int read = 0;
+            while (slot.hasRemaining() && read >= 0) {
+                read = channel.read(slot, i * SLOT_SIZE + slot.position());
+            }
+            if (isValid(slot) && (newest == null || slot.getLong(8) > newest.getLong(8))) {
+                newest = slot;
+            }
+        }
+        return newest;
+    }
+
+    private static boolean isValid(ByteBuffer slot) {
+        if (slot.hasRemaining() || slot.getInt(0) != MAGIC || slot.getInt(4) != VERSION) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(slot.array(), 0, CHECKED_SIZE);
+        return slot.getInt(CHECKED_SIZE) == (int) crc.getValue();
+    }
+}
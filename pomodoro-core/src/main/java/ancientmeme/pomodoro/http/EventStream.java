@@ -0,0 +1,307 @@
+package ancientmeme.pomodoro.http;
+
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerSnapshot;
+import ancientmeme.pomodoro.util.TimerEventType;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Streams the timer's snapshots to every connected client as
+ * Server-Sent Events. The stream holds a single subscription to the
+ * timer, only while at least one client is connected, and encodes each
+ * snapshot once.
+ *
+ * Every client is written by the server's selector thread with
+ * non-blocking writes, there is no thread per connection. A client that
+ * stops reading only fills its own socket buffer; its unsent events wait
+ * in its queue and the selector moves on to the next client.
+ *
+ * Transitions, pauses and the other changes are queued for each client
+ * and all of them are sent, in order. Only second ticks are conflated: a
+ * client that falls behind gets the newest tick and skips older ones. A
+ * client whose write made no progress for longer than the write timeout,
+ * or with too many unsent events, is disconnected.
+ *
+ * Apart from the Flow callbacks, every method must be called on the
+ * selector thread, which owns the clients.
+ */
+final class EventStream implements Flow.Subscriber<TimerSnapshot> {
+    private static final byte[] HEADERS = ("HTTP/1.1 200 OK\r\n"
+            + "Content-Type: text/event-stream\r\n"
+            + "Cache-Control: no-store\r\n"
+            + "Connection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+    // Sent while nothing changes, keeps proxies from closing the connection
+    private static final byte[] KEEP_ALIVE = ": keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final long KEEP_ALIVE_INTERVAL = 15 * PomodoroTimer.SECOND;
+    // Unsent changes a client may have, a day of transitions is far less
+    private static final int MAX_QUEUED_EVENTS = 256;
+
+    private final PomodoroTimer timer;
+    // Runs tasks on the selector thread
+    private final Executor selectorThread;
+    private final long writeTimeoutNanos;
+    private final List<Client> clients;
+    private volatile int clientCount;
+    private Flow.Subscription subscription;
+
+    /**
+     * @param timerRef the timer to follow
+     * @param selectorThreadRef runs the snapshots handed over by the timer on the selector thread
+     * @param writeTimeout milliseconds a client may make no progress before it is disconnected
+     */
+    EventStream(PomodoroTimer timerRef, Executor selectorThreadRef, long writeTimeout) {
+        timer = timerRef;
+        selectorThread = selectorThreadRef;
+        writeTimeoutNanos = writeTimeout * 1_000_000;
+        clients = new ArrayList<>();
+    }
+
+    /**
+     * Start streaming to the client of the channel, beginning with the
+     * response headers and the current state
+     * @param channel the non-blocking channel of the client
+     * @param key the key of the channel, its interest is managed by the client
+     * @return the client, to attach to the key
+     */
+    Client add(SocketChannel channel, SelectionKey key) {
+        Client client = new Client(channel, key);
+        clients.add(client);
+        clientCount = clients.size();
+        client.offer(HEADERS, false);
+        if (!channel.isOpen()) {
+            // Gone before the headers were written
+            return client;
+        }
+        if (subscription == null) {
+            // The first snapshot of a new subscription is the current state
+            timer.getPublisher().subscribe(this);
+        } else {
+            client.offer(SnapshotJson.toEvent(timer.getSnapshot()), false);
+        }
+        return client;
+    }
+
+    int getClientCount() {
+        return clientCount;
+    }
+
+    /**
+     * Disconnect every client and stop following the timer
+     */
+    void close() {
+        for (int i = clients.size() - 1; i >= 0; --i) {
+            remove(clients.get(i));
+        }
+    }
+
+    /**
+     * Send a comment to idle clients and disconnect the ones whose
+     * write has made no progress for too long
+     * @param now the current System.nanoTime
+     */
+    void checkClients(long now) {
+        // Backwards, a client may remove itself
+        for (int i = clients.size() - 1; i >= 0; --i) {
+            Client client = clients.get(i);
+            if (client.isStalled(now)) {
+                client.abort();
+            } else if (client.isIdle(now)) {
+                client.offer(KEEP_ALIVE, true);
+            }
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscriptionRef) {
+        subscription = subscriptionRef;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    /**
+     * Called on the timer's thread under its lock, the snapshot is
+     * encoded here and handed to the selector thread
+     */
+    @Override
+    public void onNext(TimerSnapshot snapshot) {
+        byte[] event = SnapshotJson.toEvent(snapshot);
+        boolean isTick = snapshot.getCause() == TimerEventType.TICK;
+        runOnSelector(() -> {
+            for (int i = clients.size() - 1; i >= 0; --i) {
+                clients.get(i).offer(event, isTick);
+            }
+        });
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        System.err.format("Event stream stopped: %s%n", throwable);
+    }
+
+    /**
+     * The timer shut down, the clients are disconnected
+     */
+    @Override
+    public void onComplete() {
+        runOnSelector(this::close);
+    }
+
+    private void runOnSelector(Runnable task) {
+        try {
+            selectorThread.execute(task);
+        } catch (RejectedExecutionException e) {
+            // The server stopped, its clients are closed already
+        }
+    }
+
+    private void remove(Client client) {
+        client.close();
+        if (!clients.remove(client)) {
+            return;
+        }
+        clientCount = clients.size();
+        if (clients.isEmpty() && subscription != null) {
+            // Without clients the timer has no reason to tick
+            subscription.cancel();
+            subscription = null;
+        }
+    }
+
+    /**
+     * One connected client, holds the changes it was not sent yet,
+     * the newest tick and the event being written
+     */
+    final class Client {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final Deque<byte[]> changes;
+        // Newer than every queued change, a change clears it
+        private byte[] tick;
+        // The rest of the event being written
+        private ByteBuffer pending;
+        // System.nanoTime of the last write that made progress
+        private long lastProgress;
+        // Requests are ignored, reading only notices the client leaving
+        private final ByteBuffer discard;
+
+        private Client(SocketChannel channelRef, SelectionKey keyRef) {
+            channel = channelRef;
+            key = keyRef;
+            changes = new ArrayDeque<>();
+            discard = ByteBuffer.allocate(256);
+            lastProgress = System.nanoTime();
+        }
+
+        /**
+         * The channel of the client is readable or writable
+         */
+        void handle() {
+            try {
+                if (key.isReadable()) {
+                    discard.clear();
+                    if (channel.read(discard) < 0) {
+                        remove(this);
+                        return;
+                    }
+                }
+                if (key.isValid() && key.isWritable()) {
+                    write();
+                }
+            } catch (IOException e) {
+                // The client went away
+                remove(this);
+            }
+        }
+
+        private void offer(byte[] event, boolean isTick) {
+            if (isTick) {
+                tick = event;
+            } else if (changes.size() < MAX_QUEUED_EVENTS) {
+                tick = null;
+                changes.addLast(event);
+            } else {
+                // Hopelessly behind
+                abort();
+                return;
+            }
+            try {
+                write();
+            } catch (IOException e) {
+                remove(this);
+            }
+        }
+
+        /**
+         * Writes as much as the socket takes without blocking, then
+         * waits for the socket to become writable if anything is left
+         */
+        private void write() throws IOException {
+            while (true) {
+                if (pending == null || !pending.hasRemaining()) {
+                    byte[] next = changes.pollFirst();
+                    if (next == null) {
+                        next = tick;
+                        tick = null;
+                    }
+                    if (next == null) {
+                        pending = null;
+                        key.interestOps(SelectionKey.OP_READ);
+                        return;
+                    }
+                    pending = ByteBuffer.wrap(next);
+                }
+                if (channel.write(pending) > 0) {
+                    lastProgress = System.nanoTime();
+                }
+                if (pending.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+            }
+        }
+
+        private boolean isStalled(long now) {
+            return pending != null && pending.hasRemaining() && now - lastProgress > writeTimeoutNanos;
+        }
+
+        private boolean isIdle(long now) {
+            return pending == null && changes.isEmpty() && tick == null
+                    && now - lastProgress >= KEEP_ALIVE_INTERVAL * 1_000_000;
+        }
+
+        /**
+         * Disconnects a client that stopped reading. The connection is
+         * reset instead of closed, so the kernel drops the unsent bytes
+         * at once rather than keep trying to deliver them.
+         */
+        private void abort() {
+            try {
+                channel.setOption(StandardSocketOptions.SO_LINGER, 0);
+            } catch (IOException e) {
+                // Closed already
+            }
+            remove(this);
+        }
+
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Closed already
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ancientmeme.pomodoro.http;
+
+import ancientmeme.pomodoro.TimerSnapshot;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes timer snapshots as JSON and as Server-Sent Events. Every value
+ * is a number, a boolean or an enum name, so nothing needs escaping.
+ */
+public final class SnapshotJson {
+    private SnapshotJson() {
+    }
+
+    /**
+     * @param snapshot the state to write
+     * @return the snapshot as a JSON object
+     */
+    public static String toJson(TimerSnapshot snapshot) {
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"cause\":");
+        if (snapshot.getCause() == null) {
+            json.append("null");
+        } else {
+            json.append('"').append(snapshot.getCause().name()).append('"');
+        }
+        json.append(",\"mode\":\"").append(snapshot.getMode().name()).append('"')
+                .append(",\"remainingTime\":").append(snapshot.getRemainingTime())
+                .append(",\"remainingSeconds\":").append(snapshot.getRemainingSeconds())
+                .append(",\"breakCount\":").append(snapshot.getBreakCount())
+                .append(",\"isTimerRunning\":").append(snapshot.isTimerRunning())
+                .append(",\"isPause\":").append(snapshot.isPause())
+                .append('}');
+        return json.toString();
+    }
+
+    /**
+     * Encodes the snapshot once as an event every stream client receives.
+     * The event is named after its cause, "state" for the current state.
+     * @param snapshot the state to send
+     * @return the UTF-8 bytes of the event
+     */
+    static byte[] toEvent(TimerSnapshot snapshot) {
+        String name = (snapshot.getCause() == null) ? "state" : snapshot.getCause().name().toLowerCase();
+        String event = "event: " + name + "\ndata: " + toJson(snapshot) + "\n\n";
+        return event.getBytes(StandardCharsets.UTF_8);
+    }
+}
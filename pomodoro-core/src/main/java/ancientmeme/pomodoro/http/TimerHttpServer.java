@@ -0,0 +1,459 @@
+package ancientmeme.pomodoro.http;
+
+import ancientmeme.pomodoro.PomodoroRuntime;
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.control.TimerCommand;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A small HTTP API of a PomodoroTimer, only reachable from the local
+ * machine. Meant for desk signage and dashboards:
+ *
+ *   GET  /status   the state of the timer as JSON
+ *   POST /start, /pause, /resume, /stop   control the timer, answers the new state
+ *   GET  /events   Server-Sent Events of every transition and second tick
+ *
+ * A single selector thread does all socket I/O without blocking: it
+ * accepts connections, reads requests and writes every response and the
+ * event stream of every client, see EventStream. Requests are answered
+ * on the runtime's I/O executor, the answer is handed back to the
+ * selector thread to be written. Every connection is closed after its
+ * response, there is no keep-alive.
+ */
+public class TimerHttpServer {
+    // Longest a client may take to send its request and read the answer
+    private static final long REQUEST_TIMEOUT = 10 * PomodoroTimer.SECOND;
+    // Longest an event stream client may make no progress reading
+    private static final long WRITE_TIMEOUT = 10 * PomodoroTimer.SECOND;
+    // Request line and headers, the API takes no request bodies
+    private static final int MAX_REQUEST_SIZE = 8 * 1024;
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+
+    private final PomodoroTimer timer;
+    private final Executor ioExecutor;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    // Work handed to the selector thread by other threads
+    private final Queue<Runnable> tasks;
+    private final Map<String, Route> routes;
+    private final EventStream eventStream;
+    private final long checkInterval;
+    private final Thread selectorThread;
+    private volatile boolean isRunning;
+
+    /**
+     * Binds the server to the loopback address, call start to serve
+     * @param timerRef the timer to expose
+     * @param port the port to listen on, 0 picks a free one
+     * @throws IOException if the port cannot be bound
+     */
+    public TimerHttpServer(PomodoroTimer timerRef, int port) throws IOException {
+        this(timerRef, port, PomodoroRuntime.shared());
+    }
+
+    /**
+     * Binds the server to the loopback address, call start to serve
+     * @param timerRef the timer to expose
+     * @param port the port to listen on, 0 picks a free one
+     * @param runtime answers the requests on its I/O executor
+     * @throws IOException if the port cannot be bound
+     */
+    public TimerHttpServer(PomodoroTimer timerRef, int port, PomodoroRuntime runtime) throws IOException {
+        this(timerRef, port, runtime, WRITE_TIMEOUT);
+    }
+
+    /**
+     * Binds the server to the loopback address, call start to serve
+     * @param timerRef the timer to expose
+     * @param port the port to listen on, 0 picks a free one
+     * @param runtime answers the requests on its I/O executor
+     * @param writeTimeout milliseconds an event stream client may read nothing before it is disconnected
+     * @throws IOException if the port cannot be bound
+     */
+    public TimerHttpServer(PomodoroTimer timerRef, int port, PomodoroRuntime runtime, long writeTimeout)
+            throws IOException {
+        timer = timerRef;
+        ioExecutor = runtime.getIoExecutor();
+        tasks = new ConcurrentLinkedQueue<>();
+        eventStream = new EventStream(timer, this::runOnSelector, writeTimeout);
+        // Stalled clients are found within half the timeout
+        checkInterval = Math.max(1, Math.min(PomodoroTimer.SECOND, writeTimeout / 2));
+
+        routes = new HashMap<>();
+        routes.put("/status", new Route("GET", () -> {}));
+        for (TimerCommand command : TimerCommand.values()) {
+            if (command != TimerCommand.STATUS) {
+                routes.put("/" + command.getName(), new Route("POST", () -> command.applyTo(timer)));
+            }
+        }
+
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            closeChannels();
+            throw e;
+        }
+        selectorThread = new Thread(this::run, "pomodoro-http");
+        selectorThread.setDaemon(true);
+    }
+
+    public void start() {
+        isRunning = true;
+        selectorThread.start();
+    }
+
+    /**
+     * Disconnects the event stream clients and stops the server,
+     * waits for the selector thread to finish
+     */
+    public void stop() {
+        if (!isRunning) {
+            closeChannels();
+            return;
+        }
+        isRunning = false;
+        selector.wakeup();
+        try {
+            selectorThread.join(PomodoroTimer.SECOND);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the port the server listens on
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return the number of clients connected to the event stream
+     */
+    public int getEventClientCount() {
+        return eventStream.getClientCount();
+    }
+
+    /**
+     * Runs a task on the selector thread
+     * @throws RejectedExecutionException once the server is stopped
+     */
+    private void runOnSelector(Runnable task) {
+        if (!isRunning) {
+            throw new RejectedExecutionException("The HTTP server is stopped");
+        }
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * The selector thread
+     */
+    private void run() {
+        try {
+            while (isRunning) {
+                // Only connections have deadlines, an idle server sleeps
+                selector.select((selector.keys().size() > 1) ? checkInterval : 0);
+                for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+                    task.run();
+                }
+                for (SelectionKey key : selector.selectedKeys()) {
+                    handle(key);
+                }
+                selector.selectedKeys().clear();
+                checkDeadlines(System.nanoTime());
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.format("HTTP server stopped: %s%n", e);
+        } finally {
+            isRunning = false;
+            eventStream.close();
+            closeChannels();
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        Object attachment = key.attachment();
+        if (key.isAcceptable()) {
+            accept();
+        } else if (attachment instanceof Connection) {
+            ((Connection) attachment).handle();
+        } else if (attachment instanceof EventStream.Client) {
+            ((EventStream.Client) attachment).handle();
+        }
+    }
+
+    private void accept() {
+        SocketChannel channel = null;
+        try {
+            channel = serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+        } catch (IOException e) {
+            // Out of file descriptors or the client gave up, keep serving the others
+            System.err.format("Cannot accept HTTP connection: %s%n", e.getMessage());
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException closeError) {
+                    // Closed already
+                }
+            }
+        }
+    }
+
+    private void checkDeadlines(long now) {
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof Connection && now - ((Connection) attachment).deadline > 0) {
+                ((Connection) attachment).close();
+            }
+        }
+        eventStream.checkClients(now);
+    }
+
+    private void closeChannels() {
+        if (!selector.isOpen()) {
+            return;
+        }
+        for (SelectionKey key : selector.keys()) {
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                // Closed already
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+
+    private static boolean isLocalRequest(Map<String, String> headers) {
+        String host = headers.get("host");
+        String origin = headers.get("origin");
+        return isLocalHost(host) && (origin == null || isLocalHost(origin.replaceFirst("^https?://", "")));
+    }
+
+    private static boolean isLocalHost(String host) {
+        if (host == null) {
+            return false;
+        }
+        String name = host.replaceFirst(":\\d+$", "");
+        return name.equals("localhost") || name.equals("127.0.0.1") || name.equals("[::1]");
+    }
+
+    private static byte[] response(int status, String reason, String contentType, String extraHeaders, byte[] body) {
+        String head = "HTTP/1.1 " + status + " " + reason + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Cache-Control: no-store\r\n"
+                + extraHeaders
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.US_ASCII);
+        byte[] bytes = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, bytes, 0, headBytes.length);
+        System.arraycopy(body, 0, bytes, headBytes.length, body.length);
+        return bytes;
+    }
+
+    private static byte[] textResponse(int status, String reason, String extraHeaders) {
+        return response(status, reason, "text/plain; charset=utf-8", extraHeaders,
+                reason.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * An endpoint answering with the state of the timer after its action
+     */
+    private static final class Route {
+        private final String method;
+        private final Runnable action;
+
+        Route(String methodName, Runnable actionRef) {
+            method = methodName;
+            action = actionRef;
+        }
+    }
+
+    /**
+     * A connection reading its request or writing its response, owned
+     * by the selector thread
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private final ByteBuffer request;
+        // System.nanoTime after which the connection is closed
+        private final long deadline;
+        private ByteBuffer response;
+
+        Connection(SocketChannel channelRef, SelectionKey keyRef) {
+            channel = channelRef;
+            key = keyRef;
+            request = ByteBuffer.allocate(MAX_REQUEST_SIZE);
+            deadline = System.nanoTime() + REQUEST_TIMEOUT * 1_000_000;
+        }
+
+        void handle() {
+            try {
+                if (key.isReadable()) {
+                    read();
+                } else if (key.isWritable()) {
+                    write();
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void read() throws IOException {
+            if (channel.read(request) < 0) {
+                close();
+                return;
+            }
+            int end = findHeaderEnd();
+            if (end >= 0) {
+                // Whatever follows the headers is ignored
+                key.interestOps(0);
+                dispatch(new String(request.array(), 0, end, StandardCharsets.ISO_8859_1));
+            } else if (!request.hasRemaining()) {
+                respond(textResponse(431, "Request Header Fields Too Large", ""));
+            }
+        }
+
+        private int findHeaderEnd() {
+            byte[] bytes = request.array();
+            for (int i = 0; i + HEADER_END.length <= request.position(); ++i) {
+                if (bytes[i] == '\r' && bytes[i + 1] == '\n' && bytes[i + 2] == '\r' && bytes[i + 3] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Checks the method and where the request comes from, then answers
+         * it. Requests carrying a foreign Host or Origin are refused, so a
+         * web page cannot control the timer through the user's browser.
+         */
+        private void dispatch(String head) throws IOException {
+            String[] lines = head.split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/")) {
+                respond(textResponse(400, "Bad Request", ""));
+                return;
+            }
+            Map<String, String> headers = new HashMap<>();
+            for (int i = 1; i < lines.length; ++i) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0) {
+                    headers.putIfAbsent(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                                        lines[i].substring(colon + 1).trim());
+                }
+            }
+            String method = requestLine[0];
+            String path = requestLine[1].replaceFirst("\\?.*$", "");
+
+            Route route = routes.get(path);
+            if (!isLocalRequest(headers)) {
+                respond(textResponse(403, "Forbidden", ""));
+            } else if (path.equals("/events")) {
+                if (method.equals("GET")) {
+                    key.attach(eventStream.add(channel, key));
+                } else {
+                    respond(textResponse(405, "Method Not Allowed", "Allow: GET\r\n"));
+                }
+            } else if (route == null) {
+                respond(textResponse(404, "Not Found", ""));
+            } else if (!method.equals(route.method)) {
+                respond(textResponse(405, "Method Not Allowed", "Allow: " + route.method + "\r\n"));
+            } else {
+                answer(route);
+            }
+        }
+
+        /**
+         * Runs the route on the I/O executor, the timer may take its lock
+         * for a while, then writes the answer on the selector thread
+         */
+        private void answer(Route route) throws IOException {
+            try {
+                ioExecutor.execute(() -> {
+                    route.action.run();
+                    byte[] body = SnapshotJson.toJson(timer.getSnapshot()).getBytes(StandardCharsets.UTF_8);
+                    byte[] answer = response(200, "OK", "application/json", "", body);
+                    try {
+                        runOnSelector(() -> respond(answer));
+                    } catch (RejectedExecutionException e) {
+                        // The server stopped and closed the connection
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                respond(textResponse(503, "Service Unavailable", ""));
+            }
+        }
+
+        private void respond(byte[] bytes) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            response = ByteBuffer.wrap(bytes);
+            try {
+                write();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void write() throws IOException {
+            channel.write(response);
+            if (response.hasRemaining()) {
+                key.interestOps(SelectionKey.OP_WRITE);
+            } else {
+                close();
+            }
+        }
+
+        private void close() {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Closed already
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ancientmeme.pomodoro.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one refresh of the clock display.
+ * Begin the event before the refresh, and only fill it in and commit it
+ * after when shouldCommit() is true.
+ */
+@Name("ancientmeme.pomodoro.DisplayRefresh")
+@Label("Display Refresh")
+@Category({"Pomodoro", "Display"})
+@Description("The clock display was refreshed from a timer snapshot")
+@StackTrace(false)
+public final class DisplayRefreshEvent extends Event {
+    @Label("Cause")
+    private String cause;
+    @Label("Remaining Seconds")
+    private long remainingSeconds;
+    @Label("Texts Changed")
+    @Description("How many display texts were changed, 0 if the refresh was redundant")
+    private int textsChanged;
+
+    /**
+     * Fill in the outcome of the refresh, call before committing
+     * @param causeName what produced the shown snapshot, null for the initial state
+     * @param remainingSecondsValue the remaining seconds shown
+     * @param textsChangedValue how many display texts were changed
+     */
+    public void set(String causeName, long remainingSecondsValue, int textsChangedValue) {
+        cause = causeName;
+        remainingSeconds = remainingSecondsValue;
+        textsChanged = textsChangedValue;
+    }
+}
@@ -0,0 +1,119 @@
+package ancientmeme.pomodoro.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-memory histogram of latencies in the style of HdrHistogram.
+ * Values below 2 * SUB_BUCKETS are counted exactly. Above that every
+ * power of two is split into SUB_BUCKETS linear buckets, so a value is
+ * reported at most 1/32 (about 3%) above its true value. Recording is
+ * O(1) and never allocates. Values above the highest trackable value
+ * are counted in the last bucket, the maximum is always exact.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private final long highestTrackableValue;
+    private final long[] counts;
+    private long totalCount;
+    private long total;
+    private long min;
+    private long max;
+
+    /**
+     * @param highestTrackableValue largest value that is told apart from larger ones
+     */
+    public LatencyHistogram(long highestTrackableValue) {
+        if (highestTrackableValue < 1) {
+            throw new IllegalArgumentException("Highest trackable value must be positive");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        counts = new long[bucketIndex(highestTrackableValue) + 1];
+        reset();
+    }
+
+    /**
+     * Count one value, negative values are counted as 0
+     * @param value the latency to record
+     */
+    public synchronized void record(long value) {
+        long clamped = Math.max(0, value);
+        counts[bucketIndex(Math.min(clamped, highestTrackableValue))] += 1;
+        totalCount += 1;
+        total += clamped;
+        min = Math.min(min, clamped);
+        max = Math.max(max, clamped);
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        total = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+
+    public synchronized long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the smallest recorded value, 0 if nothing was recorded
+     */
+    public synchronized long getMin() {
+        return (totalCount == 0) ? 0 : min;
+    }
+
+    public synchronized long getMax() {
+        return max;
+    }
+
+    public synchronized double getMean() {
+        return (totalCount == 0) ? 0 : (double) total / totalCount;
+    }
+
+    /**
+     * Gets the value below or at which the given percentage of the
+     * recorded values fall, reported as the highest value of its bucket
+     * @param percentile between 0 and 100
+     * @return the value at the percentile, 0 if nothing was recorded
+     */
+    public synchronized long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < counts.length; ++i) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValueOf(i), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Values below 2 * SUB_BUCKETS map to themselves, a larger value v
+     * with its highest bit at position e maps to (e - SUB_BUCKET_BITS)
+     * sub-bucket rows past the linear range
+     */
+    private static int bucketIndex(long value) {
+        int highestBit = 63 - Long.numberOfLeadingZeros(value | 1);
+        int shift = Math.max(0, highestBit - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index - (long) shift * SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
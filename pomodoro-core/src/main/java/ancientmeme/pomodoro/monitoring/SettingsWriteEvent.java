@@ -0,0 +1,38 @@
+package ancientmeme.pomodoro.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning one write to the settings store, or
+ * one flush of the store when the key is "FLUSH". Begin the event
+ * before the write, and only fill it in and commit it after when
+ * shouldCommit() is true.
+ */
+@Name("ancientmeme.pomodoro.SettingsWrite")
+@Label("Settings Write")
+@Category({"Pomodoro", "Settings"})
+@Description("A preference written to or flushed from the settings store")
+@StackTrace(false)
+public final class SettingsWriteEvent extends Event {
+    public static final String FLUSH = "FLUSH";
+    @Label("Key")
+    private String key;
+    @Label("Deferred")
+    @Description("The value was collected and written behind in a later flush")
+    private boolean isDeferred;
+
+    /**
+     * Fill in what was written, call before committing
+     * @param keyName name of the written settings key, or FLUSH
+     * @param isDeferredValue was the write deferred
+     */
+    public void set(String keyName, boolean isDeferredValue) {
+        key = keyName;
+        isDeferred = isDeferredValue;
+    }
+}
@@ -0,0 +1,32 @@
+package ancientmeme.pomodoro.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning the shutdown of the application, from
+ * closing the clock window until the pending writes are drained.
+ * Begin the event before the shutdown and commit it after.
+ */
+@Name("ancientmeme.pomodoro.Shutdown")
+@Label("Shutdown")
+@Category({"Pomodoro", "Application"})
+@Description("The application stopped and drained its pending work")
+@StackTrace(false)
+public final class ShutdownEvent extends Event {
+    @Label("Drained")
+    @Description("Did the pending work finish within the shutdown budget")
+    private boolean drained;
+
+    /**
+     * Fill in the outcome of the shutdown, call before committing
+     * @param drainedValue did the pending work finish within the budget
+     */
+    public void set(boolean drainedValue) {
+        drained = drainedValue;
+    }
+}
@@ -0,0 +1,37 @@
+package ancientmeme.pomodoro.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event spanning a theme switch, from the request until
+ * the pulse that applied the new styles finished its layout. Begin the
+ * event with the request, and only fill it in and commit it after the
+ * pulse when shouldCommit() is true.
+ */
+@Name("ancientmeme.pomodoro.ThemeSwitch")
+@Label("Theme Switch")
+@Category({"Pomodoro", "Display"})
+@Description("Every window was switched to another theme")
+@StackTrace(false)
+public final class ThemeSwitchEvent extends Event {
+    @Label("Theme")
+    private String theme;
+    @Label("Windows")
+    @Description("How many windows were switched")
+    private int windowCount;
+
+    /**
+     * Fill in the switch, call before committing
+     * @param themeName the theme switched to
+     * @param windowCountValue how many windows were switched
+     */
+    public void set(String themeName, int windowCountValue) {
+        theme = themeName;
+        windowCount = windowCountValue;
+    }
+}
@@ -0,0 +1,51 @@
+package ancientmeme.pomodoro.monitoring;
+
+import ancientmeme.pomodoro.util.TimerEventType;
+import ancientmeme.pomodoro.util.TimerMode;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a start, pause, resume or stop of the timer.
+ */
+@Name("ancientmeme.pomodoro.TimerControl")
+@Label("Timer Control")
+@Category({"Pomodoro", "Timer"})
+@Description("The timer was started, paused, resumed or stopped")
+@StackTrace(false)
+public final class TimerControlEvent extends Event {
+    @Label("Action")
+    private String action;
+    @Label("Mode")
+    private String mode;
+    @Label("Remaining Time")
+    @Timespan(Timespan.MILLISECONDS)
+    private long remainingTime;
+    @Label("Break Count")
+    private int breakCount;
+
+    /**
+     * Record a control action, the fields are only filled in while a
+     * recording has the event enabled
+     * @param action STARTED, PAUSED, RESUMED or STOPPED
+     * @param mode the mode of the timer
+     * @param remainingTime remaining milliseconds of the phase after the action
+     * @param breakCount the amount of breaks so far
+     */
+    public static void emit(TimerEventType action, TimerMode mode, long remainingTime, int breakCount) {
+        TimerControlEvent event = new TimerControlEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.action = action.name();
+        event.mode = mode.name();
+        event.remainingTime = remainingTime;
+        event.breakCount = breakCount;
+        event.commit();
+    }
+}
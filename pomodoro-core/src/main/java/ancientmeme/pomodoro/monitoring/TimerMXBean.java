@@ -0,0 +1,92 @@
+package ancientmeme.pomodoro.monitoring;
+
+/**
+ * Management interface of a PomodoroTimer, shows the live state of the
+ * timer and how punctually it has run in jconsole or any JMX client.
+ * Times are in milliseconds.
+ */
+public interface TimerMXBean {
+    /**
+     * @return SESSION, BREAK or LONG_BREAK
+     */
+    String getMode();
+
+    boolean isTimerRunning();
+
+    boolean isPause();
+
+    long getRemainingTime();
+
+    int getBreakCount();
+
+    /**
+     * @return number of the current phase of the timer's plan
+     */
+    int getPhase();
+
+    /**
+     * @return time until the day's plan of sessions and breaks ends
+     */
+    long getPlanRemainingTime();
+
+    /**
+     * @return how many second ticks were published to subscribers
+     */
+    long getTickCount();
+
+    /**
+     * @return how many sessions and breaks completed
+     */
+    long getTransitionCount();
+
+    /**
+     * @return how late the last transition ran after its deadline, -1 if none ran yet
+     */
+    long getLastTransitionLateness();
+
+    long getMaxTransitionLateness();
+
+    /**
+     * @return how many times an alarm played, 0 while no clip is loaded
+     */
+    long getAlarmCount();
+
+    /**
+     * @return time from the end of the last phase until its alarm started, -1 if none played yet
+     */
+    long getLastAlarmLatency();
+
+    long getMaxAlarmLatency();
+
+    long getAlarmLatencyP99();
+
+    /**
+     * @return median lateness of the session and break ends
+     */
+    long getTransitionLatenessP50();
+
+    long getTransitionLatenessP99();
+
+    /**
+     * @return median lateness of every tick and deadline the wheel ran
+     */
+    long getWakeupLatenessP50();
+
+    long getWakeupLatenessP99();
+
+    long getWakeupLatenessP999();
+
+    long getMaxWakeupLateness();
+
+    /**
+     * @return how many times the timer's timing wheel woke up, in total
+     */
+    long getWakeupCount();
+
+    /**
+     * @return how many times the timer's timing wheel woke up during the
+     *         last hour, 0 while the timer is stopped or paused and no
+     *         countdown is shown
+     */
+    long getWakeupsPerHour();
+}
@@ -0,0 +1,167 @@
+package ancientmeme.pomodoro.monitoring;
+
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerMetrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Exposes a PomodoroTimer as an MXBean. Every attribute is read when
+ * the JMX client asks for it, so the timer does no work for an
+ * unattended monitor.
+ */
+public class TimerMonitor implements TimerMXBean {
+    public static final String OBJECT_NAME = "ancientmeme.pomodoro:type=PomodoroTimer";
+    private final PomodoroTimer timer;
+    private final TimerMetrics metrics;
+    private ObjectName registeredName;
+
+    /**
+     * @param timerRef the timer to expose
+     */
+    public TimerMonitor(PomodoroTimer timerRef) {
+        timer = timerRef;
+        metrics = timer.getMetrics();
+    }
+
+    /**
+     * Register the monitor with the platform MBean server
+     * @throws JMException if a timer is already registered under OBJECT_NAME
+     */
+    public synchronized void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        server.registerMBean(this, name);
+        registeredName = name;
+    }
+
+    /**
+     * Remove the monitor from the platform MBean server, if it was registered
+     * @throws JMException if the registration was removed by someone else
+     */
+    public synchronized void unregister() throws JMException {
+        if (registeredName == null) {
+            return;
+        }
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        registeredName = null;
+    }
+
+    @Override
+    public String getMode() {
+        return timer.getTimerMode().name();
+    }
+
+    @Override
+    public boolean isTimerRunning() {
+        return timer.isTimerRunning();
+    }
+
+    @Override
+    public boolean isPause() {
+        return timer.isPause();
+    }
+
+    @Override
+    public long getRemainingTime() {
+        return timer.getRemainingTime();
+    }
+
+    @Override
+    public int getBreakCount() {
+        return timer.getBreakCount();
+    }
+
+    @Override
+    public int getPhase() {
+        return timer.getPhase();
+    }
+
+    @Override
+    public long getPlanRemainingTime() {
+        return timer.getTimeUntilPlanEnd();
+    }
+
+    @Override
+    public long getTickCount() {
+        return metrics.getTickCount();
+    }
+
+    @Override
+    public long getTransitionCount() {
+        return metrics.getTransitionCount();
+    }
+
+    @Override
+    public long getLastTransitionLateness() {
+        return metrics.getLastTransitionLateness();
+    }
+
+    @Override
+    public long getMaxTransitionLateness() {
+        return metrics.getMaxTransitionLateness();
+    }
+
+    @Override
+    public long getAlarmCount() {
+        return metrics.getAlarmCount();
+    }
+
+    @Override
+    public long getLastAlarmLatency() {
+        return metrics.getLastAlarmLatency();
+    }
+
+    @Override
+    public long getMaxAlarmLatency() {
+        return metrics.getAlarmLatency().getMax();
+    }
+
+    @Override
+    public long getAlarmLatencyP99() {
+        return metrics.getAlarmLatency().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getTransitionLatenessP50() {
+        return metrics.getTransitionLateness().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getTransitionLatenessP99() {
+        return metrics.getTransitionLateness().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getWakeupLatenessP50() {
+        return metrics.getWakeupLateness().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getWakeupLatenessP99() {
+        return metrics.getWakeupLateness().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getWakeupLatenessP999() {
+        return metrics.getWakeupLateness().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getMaxWakeupLateness() {
+        return metrics.getWakeupLateness().getMax();
+    }
+
+    @Override
+    public long getWakeupCount() {
+        return timer.getTimingWheel().getWakeupCount();
+    }
+
+    @Override
+    public long getWakeupsPerHour() {
+        return timer.getTimingWheel().getWakeupsPerHour();
+    }
+}
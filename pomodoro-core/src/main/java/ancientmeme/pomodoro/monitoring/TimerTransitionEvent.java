@@ -0,0 +1,63 @@
+package ancientmeme.pomodoro.monitoring;
+
+import ancientmeme.pomodoro.util.TimerEventType;
+import ancientmeme.pomodoro.util.TimerMode;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a completed session or break, with the
+ * deadline the transition was planned for and when it actually ran.
+ * Both times are read on the timer's monotonic clock.
+ */
+@Name("ancientmeme.pomodoro.TimerTransition")
+@Label("Timer Transition")
+@Category({"Pomodoro", "Timer"})
+@Description("A session or break completed and the timer switched mode")
+@StackTrace(false)
+public final class TimerTransitionEvent extends Event {
+    @Label("Completed")
+    private String completed;
+    @Label("Next Mode")
+    private String nextMode;
+    @Label("Break Count")
+    private int breakCount;
+    @Label("Planned Time")
+    @Description("Deadline of the completed phase on the timer's clock, in milliseconds")
+    private long plannedTime;
+    @Label("Actual Time")
+    @Description("When the transition ran on the timer's clock, in milliseconds")
+    private long actualTime;
+    @Label("Lateness")
+    @Timespan(Timespan.MILLISECONDS)
+    private long lateness;
+
+    /**
+     * Record a transition, the fields are only filled in while a
+     * recording has the event enabled
+     * @param completed the session or break that completed
+     * @param nextMode the mode the timer switched to
+     * @param breakCount the amount of breaks after the transition
+     * @param plannedTime the deadline of the completed phase
+     * @param actualTime when the transition ran
+     */
+    public static void emit(TimerEventType completed, TimerMode nextMode, int breakCount,
+                            long plannedTime, long actualTime) {
+        TimerTransitionEvent event = new TimerTransitionEvent();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.completed = completed.name();
+        event.nextMode = nextMode.name();
+        event.breakCount = breakCount;
+        event.plannedTime = plannedTime;
+        event.actualTime = actualTime;
+        event.lateness = actualTime - plannedTime;
+        event.commit();
+    }
+}
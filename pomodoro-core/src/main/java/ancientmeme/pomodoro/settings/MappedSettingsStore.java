@@ -0,0 +1,116 @@
+package ancientmeme.pomodoro.settings;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Stores the settings in a small fixed-layout binary file mapped into
+ * memory. Loading is a single mmap and storing a value is one positional
+ * write into the mapping, there is nothing to parse.
+ *
+ * Layout, all values big-endian:
+ *   0  int  magic "POMO"
+ *   4  int  format version
+ *   8  long bit set of the keys that have been stored
+ *   16 long one slot per SettingsKey, in ordinal order
+ *
+ * Keys appended to SettingsKey grow the file, a file written before
+ * they existed keeps its values and reads the new keys as not stored.
+ */
+public class MappedSettingsStore implements SettingsStore {
+    private static final int MAGIC = 0x504F4D4F;
+    private static final int VERSION = 1;
+    private static final int STORED_KEYS_OFFSET = 8;
+    private static final int VALUES_OFFSET = 16;
+    private static final int FILE_SIZE = VALUES_OFFSET + Long.BYTES * SettingsKey.values().length;
+
+    private final MappedByteBuffer buffer;
+    private final boolean isNewFile;
+
+    /**
+     * Maps the settings file, creating it if needed. A file that is not
+     * a settings file of this version is reinitialized empty.
+     * @param file path of the settings file
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public MappedSettingsStore(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE, CREATE)) {
+            boolean hasHeader = channel.size() >= VALUES_OFFSET;
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+            isNewFile = !hasHeader || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION;
+        }
+
+        if (isNewFile) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(STORED_KEYS_OFFSET, 0);
+        }
+    }
+
+    /**
+     * Gets information on whether the file was created or reset when
+     * it was mapped, meaning no setting has been stored in it yet
+     * @return is the settings file new
+     */
+    public boolean isNewFile() {
+        return isNewFile;
+    }
+
+    @Override
+    public synchronized long getLong(SettingsKey key, long defaultValue) {
+        long storedKeys = buffer.getLong(STORED_KEYS_OFFSET);
+        if ((storedKeys & (1L << key.ordinal())) == 0) {
+            return defaultValue;
+        }
+        return buffer.getLong(offsetOf(key));
+    }
+
+    @Override
+    public boolean getBoolean(SettingsKey key, boolean defaultValue) {
+        return getLong(key, defaultValue ? 1 : 0) != 0;
+    }
+
+    @Override
+    public double getDouble(SettingsKey key, double defaultValue) {
+        return Double.longBitsToDouble(getLong(key, Double.doubleToRawLongBits(defaultValue)));
+    }
+
+    @Override
+    public synchronized void putLong(SettingsKey key, long value) {
+        buffer.putLong(offsetOf(key), value);
+        long storedKeys = buffer.getLong(STORED_KEYS_OFFSET);
+        buffer.putLong(STORED_KEYS_OFFSET, storedKeys | (1L << key.ordinal()));
+    }
+
+    @Override
+    public void putBoolean(SettingsKey key, boolean value) {
+        putLong(key, value ? 1 : 0);
+    }
+
+    @Override
+    public void putDouble(SettingsKey key, double value) {
+        putLong(key, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    private static int offsetOf(SettingsKey key) {
+        return VALUES_OFFSET + Long.BYTES * key.ordinal();
+    }
+}
@@ -0,0 +1,55 @@
+package ancientmeme.pomodoro.settings;
+
+/**
+ * Keeps the settings in memory only, nothing survives the process.
+ * Useful for tests and for running without touching user files.
+ */
+public class MemorySettingsStore implements SettingsStore {
+    private final long[] values;
+    // One bit per key that has been stored
+    private long storedKeys;
+
+    public MemorySettingsStore() {
+        values = new long[SettingsKey.values().length];
+        storedKeys = 0;
+    }
+
+    @Override
+    public synchronized long getLong(SettingsKey key, long defaultValue) {
+        return isStored(key) ? values[key.ordinal()] : defaultValue;
+    }
+
+    @Override
+    public boolean getBoolean(SettingsKey key, boolean defaultValue) {
+        return getLong(key, defaultValue ? 1 : 0) != 0;
+    }
+
+    @Override
+    public double getDouble(SettingsKey key, double defaultValue) {
+        return Double.longBitsToDouble(getLong(key, Double.doubleToRawLongBits(defaultValue)));
+    }
+
+    @Override
+    public synchronized void putLong(SettingsKey key, long value) {
+        values[key.ordinal()] = value;
+        storedKeys |= 1L << key.ordinal();
+    }
+
+    @Override
+    public void putBoolean(SettingsKey key, boolean value) {
+        putLong(key, value ? 1 : 0);
+    }
+
+    @Override
+    public void putDouble(SettingsKey key, double value) {
+        putLong(key, Double.doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    private boolean isStored(SettingsKey key) {
+        return (storedKeys & (1L << key.ordinal())) != 0;
+    }
+}
@@ -0,0 +1,63 @@
+package ancientmeme.pomodoro.settings;
+
+import java.util.prefs.BackingStoreException;
+import java.util.prefs.Preferences;
+
+/**
+ * Stores the settings in the java.util.prefs user preferences, the
+ * storage used by every earlier version of the application.
+ */
+public class PreferencesSettingsStore implements SettingsStore {
+    private final Preferences pref;
+
+    public PreferencesSettingsStore() {
+        this(Preferences.userNodeForPackage(UserSettings.class));
+    }
+
+    /**
+     * Constructs a store on the given preference node
+     * @param node the node holding the settings
+     */
+    public PreferencesSettingsStore(Preferences node) {
+        pref = node;
+    }
+
+    @Override
+    public long getLong(SettingsKey key, long defaultValue) {
+        return pref.getLong(key.getPreferenceKey(), defaultValue);
+    }
+
+    @Override
+    public boolean getBoolean(SettingsKey key, boolean defaultValue) {
+        return pref.getBoolean(key.getPreferenceKey(), defaultValue);
+    }
+
+    @Override
+    public double getDouble(SettingsKey key, double defaultValue) {
+        return pref.getDouble(key.getPreferenceKey(), defaultValue);
+    }
+
+    @Override
+    public void putLong(SettingsKey key, long value) {
+        pref.putLong(key.getPreferenceKey(), value);
+    }
+
+    @Override
+    public void putBoolean(SettingsKey key, boolean value) {
+        pref.putBoolean(key.getPreferenceKey(), value);
+    }
+
+    @Override
+    public void putDouble(SettingsKey key, double value) {
+        pref.putDouble(key.getPreferenceKey(), value);
+    }
+
+    @Override
+    public void flush() {
+        try {
+            pref.flush();
+        } catch (BackingStoreException e) {
+            System.err.format("Cannot save settings: %s%n", e.getMessage());
+        }
+    }
+}
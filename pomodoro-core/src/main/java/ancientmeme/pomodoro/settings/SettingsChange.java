@@ -0,0 +1,63 @@
+package ancientmeme.pomodoro.settings;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The set of settings that changed in one update, passed to every
+ * SettingsListener so it can skip work for keys it does not use.
+ */
+public final class SettingsChange {
+    private static final SettingsChange ALL = new SettingsChange(EnumSet.allOf(SettingsKey.class));
+    private final Set<SettingsKey> changedKeys;
+
+    SettingsChange(EnumSet<SettingsKey> keys) {
+        changedKeys = Collections.unmodifiableSet(EnumSet.copyOf(keys));
+    }
+
+    /**
+     * A change naming every key, for when listeners have to apply
+     * all settings, such as when a window is first shown
+     * @return a change containing every settings key
+     */
+    public static SettingsChange all() {
+        return ALL;
+    }
+
+    /**
+     * Gets information on whether the given setting changed
+     * @param key the settings key
+     * @return did the setting change
+     */
+    public boolean contains(SettingsKey key) {
+        return changedKeys.contains(key);
+    }
+
+    /**
+     * Gets information on whether any of the given settings changed
+     * @param keys the settings keys
+     * @return did at least one of the settings change
+     */
+    public boolean containsAny(SettingsKey... keys) {
+        for (SettingsKey key : keys) {
+            if (changedKeys.contains(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return changedKeys.isEmpty();
+    }
+
+    public Set<SettingsKey> getChangedKeys() {
+        return changedKeys;
+    }
+
+    @Override
+    public String toString() {
+        return "SettingsChange" + changedKeys;
+    }
+}
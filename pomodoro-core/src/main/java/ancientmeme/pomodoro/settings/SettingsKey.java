@@ -0,0 +1,31 @@
+package ancientmeme.pomodoro.settings;
+
+/**
+ * The settings persisted by the application. Constants may only be
+ * appended, the ordinal is the slot of the key in binary stores.
+ */
+public enum SettingsKey {
+    SESSION_LENGTH("SESSION_LENGTH"),
+    BREAK_LENGTH("BREAK_LENGTH"),
+    LONG_BREAK("LONG_BREAK"),
+    LIGHT_MODE("LIGHT_MODE"),
+    ON_TOP("ON_TOP"),
+    WINDOW_X("X_POS"),
+    WINDOW_Y("Y_POS"),
+    LONG_BREAK_INTERVAL("LONG_BREAK_INTERVAL"),
+    DAILY_SESSIONS("DAILY_SESSIONS");
+
+    private final String preferenceKey;
+
+    SettingsKey(String preferenceKey) {
+        this.preferenceKey = preferenceKey;
+    }
+
+    /**
+     * Gets the name the key is stored under in java.util.prefs
+     * @return the preference key
+     */
+    public String getPreferenceKey() {
+        return preferenceKey;
+    }
+}
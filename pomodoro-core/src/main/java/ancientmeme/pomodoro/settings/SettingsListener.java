@@ -0,0 +1,9 @@
+package ancientmeme.pomodoro.settings;
+
+public interface SettingsListener {
+    /**
+     * Called after settings were updated
+     * @param change the settings that changed
+     */
+    void settingsChanged(SettingsChange change);
+}
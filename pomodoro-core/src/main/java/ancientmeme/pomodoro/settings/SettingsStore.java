@@ -0,0 +1,24 @@
+package ancientmeme.pomodoro.settings;
+
+/**
+ * Backing storage for UserSettings. Reads return the default value
+ * when the key has never been stored.
+ */
+public interface SettingsStore {
+    long getLong(SettingsKey key, long defaultValue);
+
+    boolean getBoolean(SettingsKey key, boolean defaultValue);
+
+    double getDouble(SettingsKey key, double defaultValue);
+
+    void putLong(SettingsKey key, long value);
+
+    void putBoolean(SettingsKey key, boolean value);
+
+    void putDouble(SettingsKey key, double value);
+
+    /**
+     * Forces every stored value to durable storage
+     */
+    void flush();
+}
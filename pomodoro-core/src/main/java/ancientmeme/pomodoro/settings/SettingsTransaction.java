@@ -0,0 +1,63 @@
+package ancientmeme.pomodoro.settings;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+import static ancientmeme.pomodoro.PomodoroTimer.SECOND;
+
+/**
+ * A batch of settings updates created by UserSettings.edit(). Nothing is
+ * applied until commit(), which stores only the values that differ from
+ * the current ones, flushes the store once and notifies the listeners
+ * with the keys that actually changed.
+ */
+public class SettingsTransaction {
+    private final UserSettings settings;
+    private final UserSettings.Values values;
+
+    SettingsTransaction(UserSettings settingsRef, UserSettings.Values current) {
+        settings = settingsRef;
+        values = current;
+    }
+
+    public SettingsTransaction setSessionLength(long minutes, long seconds) {
+        values.sessionLength = minutes * MINUTE + seconds * SECOND;
+        return this;
+    }
+
+    public SettingsTransaction setBreakLength(long minutes, long seconds) {
+        values.breakLength = minutes * MINUTE + seconds * SECOND;
+        return this;
+    }
+
+    public SettingsTransaction setIsLongBreakEnabled(boolean value) {
+        values.isLongBreakEnabled = value;
+        return this;
+    }
+
+    public SettingsTransaction setSessionsPerLongBreak(int count) {
+        values.sessionsPerLongBreak = UserSettings.checkSessionCount(count);
+        return this;
+    }
+
+    public SettingsTransaction setDailySessions(int count) {
+        values.dailySessions = UserSettings.checkSessionCount(count);
+        return this;
+    }
+
+    public SettingsTransaction setIsLightModeEnabled(boolean value) {
+        values.isLightModeEnabled = value;
+        return this;
+    }
+
+    public SettingsTransaction setIsAlwaysOnTop(boolean value) {
+        values.isAlwaysOnTop = value;
+        return this;
+    }
+
+    /**
+     * Applies the batch to the settings
+     * @return the keys that changed, empty if every value was already set
+     */
+    public SettingsChange commit() {
+        return settings.apply(values);
+    }
+}
@@ -0,0 +1,370 @@
+package ancientmeme.pomodoro.settings;
+
+import ancientmeme.pomodoro.PomodoroRuntime;
+import ancientmeme.pomodoro.monitoring.SettingsWriteEvent;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+import static ancientmeme.pomodoro.PomodoroTimer.SECOND;
+
+public class UserSettings {
+    // How long deferred writes are collected before being written out
+    private final long FLUSH_DELAY = 500;
+    // Where the user preference for the application is kept
+    private final SettingsStore store;
+    // Safe to add or remove listeners while a notification is running
+    private final List<SettingsListener> listeners;
+    // Deferred writes waiting for the next flush, repeated writes to a key coalesce
+    private final Map<SettingsKey, Double> pendingWrites;
+    // Deferred writes are timed on its wheel and written on its I/O executor
+    private final PomodoroRuntime runtime;
+    private boolean isFlushScheduled;
+    private long sessionLength;
+    private long breakLength;
+    private boolean isLongBreakEnabled;
+    private int sessionsPerLongBreak;
+    private int dailySessions;
+    private boolean isLightModeEnabled;
+    private boolean isAlwaysOnTop;
+    private double windowX;
+    private double windowY;
+
+    /**
+     * Loads the settings from the java.util.prefs user preferences
+     */
+    public UserSettings() {
+        this(new PreferencesSettingsStore());
+    }
+
+    /**
+     * Loads the settings from the given store
+     * @param storeRef where the settings are kept
+     */
+    public UserSettings(SettingsStore storeRef) {
+        store = storeRef;
+        listeners = new CopyOnWriteArrayList<>();
+        pendingWrites = new EnumMap<>(SettingsKey.class);
+        runtime = PomodoroRuntime.shared();
+        isFlushScheduled = false;
+
+        sessionLength = store.getLong(SettingsKey.SESSION_LENGTH, 25 * MINUTE);
+        breakLength = store.getLong(SettingsKey.BREAK_LENGTH, 5 * MINUTE);
+        isLongBreakEnabled = store.getBoolean(SettingsKey.LONG_BREAK, false);
+        sessionsPerLongBreak = (int) store.getLong(SettingsKey.LONG_BREAK_INTERVAL, 4);
+        dailySessions = (int) store.getLong(SettingsKey.DAILY_SESSIONS, 16);
+        isLightModeEnabled = store.getBoolean(SettingsKey.LIGHT_MODE, false);
+        isAlwaysOnTop = store.getBoolean(SettingsKey.ON_TOP, false);
+        windowX = store.getDouble(SettingsKey.WINDOW_X, 0);
+        windowY = store.getDouble(SettingsKey.WINDOW_Y, 0);
+    }
+
+    public void setSessionLength(long minutes, long seconds) {
+        sessionLength = minutes * MINUTE + seconds * SECOND;
+        putLong(SettingsKey.SESSION_LENGTH, sessionLength);
+    }
+
+    public long getSessionLength() {
+        return sessionLength;
+    }
+
+    public void setBreakLength(long minutes, long seconds) {
+        breakLength = minutes * MINUTE + seconds * SECOND;
+        putLong(SettingsKey.BREAK_LENGTH, breakLength);
+    }
+
+    public long getBreakLength() {
+        return breakLength;
+    }
+
+    public void setIsLongBreakEnabled(boolean value) {
+        isLongBreakEnabled = value;
+        putBoolean(SettingsKey.LONG_BREAK, isLongBreakEnabled);
+    }
+
+    public boolean isLongBreakEnabled() {
+        return isLongBreakEnabled;
+    }
+
+    /**
+     * Set after how many sessions the break is a long break, when long
+     * breaks are enabled
+     * @param count number of sessions, at least 1
+     */
+    public void setSessionsPerLongBreak(int count) {
+        sessionsPerLongBreak = checkSessionCount(count);
+        putLong(SettingsKey.LONG_BREAK_INTERVAL, sessionsPerLongBreak);
+    }
+
+    public int getSessionsPerLongBreak() {
+        return sessionsPerLongBreak;
+    }
+
+    /**
+     * Set how many sessions make up the day's plan
+     * @param count number of sessions, at least 1
+     */
+    public void setDailySessions(int count) {
+        dailySessions = checkSessionCount(count);
+        putLong(SettingsKey.DAILY_SESSIONS, dailySessions);
+    }
+
+    public int getDailySessions() {
+        return dailySessions;
+    }
+
+    public void setIsLightModeEnabled(boolean value) {
+        isLightModeEnabled = value;
+        putBoolean(SettingsKey.LIGHT_MODE, isLightModeEnabled);
+    }
+
+    public boolean isLightModeEnabled() {
+        return isLightModeEnabled;
+    }
+
+    public void setIsAlwaysOnTop(boolean value) {
+        isAlwaysOnTop = value;
+        putBoolean(SettingsKey.ON_TOP, isAlwaysOnTop);
+    }
+
+    public boolean isAlwaysOnTop() {
+        return isAlwaysOnTop;
+    }
+
+    public double getWindowX() {
+        return windowX;
+    }
+
+    /**
+     * Set the x position of the timer window. Called for every mouse
+     * drag event, so the value is written behind in the next flush
+     * @param value x position of the window
+     */
+    public void setWindowX(double value) {
+        windowX = value;
+        writeLater(SettingsKey.WINDOW_X, windowX);
+    }
+
+    public double getWindowY() {
+        return windowY;
+    }
+
+    /**
+     * Set the y position of the timer window. Called for every mouse
+     * drag event, so the value is written behind in the next flush
+     * @param value y position of the window
+     */
+    public void setWindowY(double value) {
+        windowY = value;
+        writeLater(SettingsKey.WINDOW_Y, windowY);
+    }
+
+    /**
+     * Starts a batch of settings updates, applied together on commit
+     * with a single store flush and a single notification
+     * @return a transaction starting from the current settings
+     */
+    public SettingsTransaction edit() {
+        Values current = new Values();
+        current.sessionLength = sessionLength;
+        current.breakLength = breakLength;
+        current.isLongBreakEnabled = isLongBreakEnabled;
+        current.sessionsPerLongBreak = sessionsPerLongBreak;
+        current.dailySessions = dailySessions;
+        current.isLightModeEnabled = isLightModeEnabled;
+        current.isAlwaysOnTop = isAlwaysOnTop;
+        return new SettingsTransaction(this, current);
+    }
+
+    public SettingsChange resetDefaultSettings() {
+        return edit()
+                .setSessionLength(25, 0)
+                .setBreakLength(5, 0)
+                .setIsLongBreakEnabled(false)
+                .setSessionsPerLongBreak(4)
+                .setDailySessions(16)
+                .setIsLightModeEnabled(false)
+                .setIsAlwaysOnTop(false)
+                .commit();
+    }
+
+    static int checkSessionCount(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("At least one session is needed, got " + count);
+        }
+        return count;
+    }
+
+    /**
+     * Writes every deferred value to the store, the application
+     * should call this before exiting so no update is lost
+     */
+    public void flush() {
+        writePending();
+        flushStore();
+    }
+
+    /**
+     * Moves the deferred values into the store
+     */
+    private void writePending() {
+        synchronized (pendingWrites) {
+            for (Map.Entry<SettingsKey, Double> write : pendingWrites.entrySet()) {
+                putDeferred(write.getKey(), write.getValue());
+            }
+            pendingWrites.clear();
+            isFlushScheduled = false;
+        }
+    }
+
+    /**
+     * Defers a write to the store, the first deferred write
+     * schedules a flush so values are written at most FLUSH_DELAY later.
+     * The store may block, so the write runs on the I/O executor instead
+     * of the wheel's worker.
+     * @param key the settings key
+     * @param value the new value
+     */
+    private void writeLater(SettingsKey key, double value) {
+        synchronized (pendingWrites) {
+            pendingWrites.put(key, value);
+            if (!isFlushScheduled) {
+                isFlushScheduled = true;
+                runtime.getTimingWheel().schedule(() -> runtime.getIoExecutor().execute(this::writePending),
+                                                  FLUSH_DELAY);
+            }
+        }
+    }
+
+    /*
+     * Every write to the store goes through these, each is recorded as a
+     * SettingsWriteEvent for the flight recorder
+     */
+    private void putLong(SettingsKey key, long value) {
+        SettingsWriteEvent event = new SettingsWriteEvent();
+        event.begin();
+        store.putLong(key, value);
+        commit(event, key.name(), false);
+    }
+
+    private void putBoolean(SettingsKey key, boolean value) {
+        SettingsWriteEvent event = new SettingsWriteEvent();
+        event.begin();
+        store.putBoolean(key, value);
+        commit(event, key.name(), false);
+    }
+
+    private void putDeferred(SettingsKey key, double value) {
+        SettingsWriteEvent event = new SettingsWriteEvent();
+        event.begin();
+        store.putDouble(key, value);
+        commit(event, key.name(), true);
+    }
+
+    private void flushStore() {
+        SettingsWriteEvent event = new SettingsWriteEvent();
+        event.begin();
+        store.flush();
+        commit(event, SettingsWriteEvent.FLUSH, false);
+    }
+
+    private static void commit(SettingsWriteEvent event, String key, boolean isDeferred) {
+        if (event.shouldCommit()) {
+            event.set(key, isDeferred);
+            event.commit();
+        }
+    }
+
+    public void addListener(SettingsListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(SettingsListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notify every listener that all settings may have changed
+     */
+    public void notifySettingsUpdate() {
+        notifySettingsUpdate(SettingsChange.all());
+    }
+
+    /**
+     * Notify every listener of the given change
+     * @param change the settings that changed
+     */
+    public void notifySettingsUpdate(SettingsChange change) {
+        for (SettingsListener listener: listeners) {
+            listener.settingsChanged(change);
+        }
+    }
+
+    /**
+     * Stores the values of a committed transaction that differ from
+     * the current settings, then flushes and notifies once
+     * @param values the values of the transaction
+     * @return the keys that changed
+     */
+    SettingsChange apply(Values values) {
+        EnumSet<SettingsKey> changedKeys = EnumSet.noneOf(SettingsKey.class);
+        if (values.sessionLength != sessionLength) {
+            sessionLength = values.sessionLength;
+            putLong(SettingsKey.SESSION_LENGTH, sessionLength);
+            changedKeys.add(SettingsKey.SESSION_LENGTH);
+        }
+        if (values.breakLength != breakLength) {
+            breakLength = values.breakLength;
+            putLong(SettingsKey.BREAK_LENGTH, breakLength);
+            changedKeys.add(SettingsKey.BREAK_LENGTH);
+        }
+        if (values.isLongBreakEnabled != isLongBreakEnabled) {
+            isLongBreakEnabled = values.isLongBreakEnabled;
+            putBoolean(SettingsKey.LONG_BREAK, isLongBreakEnabled);
+            changedKeys.add(SettingsKey.LONG_BREAK);
+        }
+        if (values.sessionsPerLongBreak != sessionsPerLongBreak) {
+            sessionsPerLongBreak = values.sessionsPerLongBreak;
+            putLong(SettingsKey.LONG_BREAK_INTERVAL, sessionsPerLongBreak);
+            changedKeys.add(SettingsKey.LONG_BREAK_INTERVAL);
+        }
+        if (values.dailySessions != dailySessions) {
+            dailySessions = values.dailySessions;
+            putLong(SettingsKey.DAILY_SESSIONS, dailySessions);
+            changedKeys.add(SettingsKey.DAILY_SESSIONS);
+        }
+        if (values.isLightModeEnabled != isLightModeEnabled) {
+            isLightModeEnabled = values.isLightModeEnabled;
+            putBoolean(SettingsKey.LIGHT_MODE, isLightModeEnabled);
+            changedKeys.add(SettingsKey.LIGHT_MODE);
+        }
+        if (values.isAlwaysOnTop != isAlwaysOnTop) {
+            isAlwaysOnTop = values.isAlwaysOnTop;
+            putBoolean(SettingsKey.ON_TOP, isAlwaysOnTop);
+            changedKeys.add(SettingsKey.ON_TOP);
+        }
+
+        SettingsChange change = new SettingsChange(changedKeys);
+        if (!change.isEmpty()) {
+            flushStore();
+            notifySettingsUpdate(change);
+        }
+        return change;
+    }
+
+    /**
+     * The settings a transaction can change
+     */
+    static class Values {
+        long sessionLength;
+        long breakLength;
+        boolean isLongBreakEnabled;
+        int sessionsPerLongBreak;
+        int dailySessions;
+        boolean isLightModeEnabled;
+        boolean isAlwaysOnTop;
+    }
+}
@@ -0,0 +1,13 @@
+package ancientmeme.pomodoro.timing;
+
+/**
+ * A monotonic time source for timers and timing wheels. Values are only
+ * meaningful relative to each other, never as a date.
+ */
+public interface Clock {
+    /**
+     * Gets the current time of the clock
+     * @return current time in milliseconds
+     */
+    long millis();
+}
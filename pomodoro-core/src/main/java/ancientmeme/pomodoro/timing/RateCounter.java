@@ -0,0 +1,63 @@
+package ancientmeme.pomodoro.timing;
+
+/**
+ * Counts events over a sliding window in fixed memory. The window is
+ * split into equal buckets, a bucket is cleared when the clock comes
+ * back around to it, so counting never schedules any work of its own.
+ * Not thread safe, the owner synchronizes.
+ */
+final class RateCounter {
+    private final Clock clock;
+    private final long bucketMillis;
+    private final long[] buckets;
+    // The bucket the last event or read fell into
+    private long currentBucket;
+    private long totalCount;
+
+    /**
+     * @param clock the clock the window slides on
+     * @param bucketMillis length of one bucket in milliseconds
+     * @param bucketCount number of buckets in the window
+     */
+    RateCounter(Clock clock, long bucketMillis, int bucketCount) {
+        this.clock = clock;
+        this.bucketMillis = bucketMillis;
+        buckets = new long[bucketCount];
+        currentBucket = Math.floorDiv(clock.millis(), bucketMillis);
+        totalCount = 0;
+    }
+
+    void increment() {
+        slide();
+        buckets[(int) Math.floorMod(currentBucket, (long) buckets.length)] += 1;
+        totalCount += 1;
+    }
+
+    /**
+     * @return events counted during the window up to now
+     */
+    long getWindowCount() {
+        slide();
+        long sum = 0;
+        for (long count : buckets) {
+            sum += count;
+        }
+        return sum;
+    }
+
+    long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Clear the buckets the clock moved past since the last call
+     */
+    private void slide() {
+        long nowBucket = Math.floorDiv(clock.millis(), bucketMillis);
+        long stale = Math.min(nowBucket - currentBucket, buckets.length);
+        for (long i = 1; i <= stale; ++i) {
+            buckets[(int) Math.floorMod(currentBucket + i, (long) buckets.length)] = 0;
+        }
+        currentBucket = Math.max(currentBucket, nowBucket);
+    }
+}
@@ -0,0 +1,17 @@
+package ancientmeme.pomodoro.timing;
+
+/**
+ * Clock backed by System.nanoTime, unaffected by NTP corrections
+ * or the user changing the wall clock.
+ */
+public final class SystemClock implements Clock {
+    public static final SystemClock INSTANCE = new SystemClock();
+
+    private SystemClock() {
+    }
+
+    @Override
+    public long millis() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
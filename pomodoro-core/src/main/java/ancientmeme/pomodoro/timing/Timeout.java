@@ -0,0 +1,42 @@
+package ancientmeme.pomodoro.timing;
+
+/**
+ * Handle for a task registered with a TimingWheel. The handle doubles
+ * as the node of the slot list it is stored in, so registering and
+ * cancelling a task never allocates beyond the handle itself.
+ */
+public final class Timeout {
+    final TimingWheel wheel;
+    final Runnable task;
+    // Absolute tick of the wheel at which the task should run
+    final long deadlineTick;
+    // Slot list links, only meaningful while the timeout is pending
+    Timeout prev;
+    Timeout next;
+    int bucket;
+    boolean isPending;
+
+    Timeout(TimingWheel wheel, Runnable task, long deadlineTick) {
+        this.wheel = wheel;
+        this.task = task;
+        this.deadlineTick = deadlineTick;
+    }
+
+    /**
+     * Cancels the task if it has not run yet
+     * @return true if the task was still pending and is now cancelled
+     */
+    public boolean cancel() {
+        return wheel.cancel(this);
+    }
+
+    /**
+     * Gets information on is the task still waiting to run
+     * @return is the task pending
+     */
+    public boolean isPending() {
+        synchronized (wheel) {
+            return isPending;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package ancientmeme.pomodoro.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A hierarchical timing wheel that runs one-shot tasks at their deadline
+ * using a single worker thread, no matter how many tasks are registered.
+ * Scheduling and cancelling are O(1): every level has 64 slots, and a
+ * task sits in the lowest level whose span still contains its deadline.
+ * When the wheel turns past a slot of a higher level, the tasks in it
+ * are cascaded down until they reach level 0 and expire.
+ * The worker only wakes up for the next occupied slot, found through a
+ * per-level occupancy bitmap, so an idle wheel does not tick at all.
+ * Time is read from an injectable Clock; manual wheels have no worker
+ * and are driven by advancing a VirtualClock.
+ * Every time the worker wakes up is counted, so an idle application
+ * can be verified to leave the CPU alone.
+ */
+public class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    // 7 levels of 64 slots cover 2^42 ticks, far beyond any pomodoro
+    private static final int LEVELS = 7;
+    // Longest accepted delay in ticks, keeps deadlines inside the top level
+    private static final long MAX_DELAY_TICKS = 1L << 36;
+    // Wakeups are counted over the last hour in one minute buckets
+    private static final long WAKEUP_BUCKET_MILLIS = 60 * 1000;
+    private static final int WAKEUP_BUCKETS = 60;
+    private static TimingWheel sharedWheel;
+
+    private final Clock clock;
+    private final long tickMillis;
+    private final long origin;
+    // Manual wheels are driven by a VirtualClock instead of a worker
+    private final boolean isManual;
+    // Slot lists of all levels, slot s of level l is at index l * SLOTS + s
+    private final Timeout[] buckets;
+    // One bit per occupied slot, one long per level
+    private final long[] occupied;
+    // The last tick the wheel has turned to
+    private long currentTick;
+    // The tick the worker is currently sleeping until
+    private long wakeupTick;
+    private int pendingCount;
+    private final RateCounter wakeups;
+    private Thread worker;
+    private boolean isShutdown;
+
+    /**
+     * Constructs a timing wheel with the given resolution on the system
+     * clock. Tasks run no earlier than their deadline and at most about
+     * one tick after it.
+     * @param tickMillis length of one tick in milliseconds
+     */
+    public TimingWheel(long tickMillis) {
+        this(SystemClock.INSTANCE, tickMillis, false);
+    }
+
+    /**
+     * Constructs a timing wheel with the given resolution that reads
+     * time from the given clock
+     * @param clock the time source of the wheel
+     * @param tickMillis length of one tick in milliseconds
+     */
+    public TimingWheel(Clock clock, long tickMillis) {
+        this(clock, tickMillis, false);
+    }
+
+    private TimingWheel(Clock clock, long tickMillis, boolean isManual) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick length must be positive");
+        }
+        this.clock = clock;
+        this.tickMillis = tickMillis;
+        this.isManual = isManual;
+        origin = clock.millis();
+        buckets = new Timeout[LEVELS * SLOTS];
+        occupied = new long[LEVELS];
+        currentTick = 0;
+        wakeupTick = Long.MAX_VALUE;
+        pendingCount = 0;
+        wakeups = new RateCounter(clock, WAKEUP_BUCKET_MILLIS, WAKEUP_BUCKETS);
+        isShutdown = false;
+    }
+
+    /**
+     * Gets the wheel shared by every PomodoroTimer in the process, with
+     * a resolution of one millisecond
+     * @return the shared timing wheel
+     */
+    public static synchronized TimingWheel shared() {
+        if (sharedWheel == null) {
+            sharedWheel = new TimingWheel(1);
+        }
+        return sharedWheel;
+    }
+
+    /**
+     * Creates a wheel without a worker thread, its tasks run on the
+     * thread advancing the virtual clock
+     * @param clock the virtual clock driving the wheel
+     * @return a wheel with a resolution of one millisecond
+     */
+    public static TimingWheel manual(VirtualClock clock) {
+        TimingWheel wheel = new TimingWheel(clock, 1, true);
+        clock.attach(wheel);
+        return wheel;
+    }
+
+    /**
+     * Gets the time source of the wheel, deadlines passed to
+     * scheduleAt are read on this clock
+     * @return the clock of the wheel
+     */
+    public Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Registers a task to run once after the given delay
+     * @param task the task to run on the worker thread
+     * @param delayMillis delay in milliseconds, negative values run the task immediately
+     * @return a handle that can cancel the task
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        return scheduleAt(task, clock.millis() + Math.max(0, delayMillis));
+    }
+
+    /**
+     * Registers a task to run once the clock reaches the given time
+     * @param task the task to run on the worker thread
+     * @param deadlineMillis deadline on the wheel's clock, past deadlines run immediately
+     * @return a handle that can cancel the task
+     */
+    public synchronized Timeout scheduleAt(Runnable task, long deadlineMillis) {
+        if (isShutdown) {
+            throw new IllegalStateException("Timing wheel has been shut down");
+        }
+        startWorker();
+        if (pendingCount == 0) {
+            // Nothing to place relative to, keep the cursor close to now
+            currentTick = Math.max(currentTick, currentTick());
+        }
+
+        // Round up so a task never runs before its deadline
+        long deadlineTick = Math.min(Math.floorDiv(deadlineMillis - origin + tickMillis - 1, tickMillis),
+                                     currentTick + MAX_DELAY_TICKS);
+        Timeout timeout = new Timeout(this, task, Math.max(deadlineTick, currentTick + 1));
+        insert(timeout);
+        pendingCount += 1;
+
+        if (timeout.deadlineTick < wakeupTick) {
+            notifyAll();
+        }
+        return timeout;
+    }
+
+    /**
+     * Gets the number of tasks waiting to run
+     * @return amount of pending tasks
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Gets how many times the wheel woke up to expire or cascade tasks,
+     * or was woken up to take an earlier deadline into account
+     * @return wakeups since the wheel was created
+     */
+    public synchronized long getWakeupCount() {
+        return wakeups.getTotalCount();
+    }
+
+    /**
+     * Gets how many times the wheel woke up during the last hour, 0 for
+     * an application that is idle
+     * @return wakeups during the last hour
+     */
+    public synchronized long getWakeupsPerHour() {
+        return wakeups.getWindowCount();
+    }
+
+    /**
+     * Stops the worker thread and drops all pending tasks
+     */
+    public synchronized void shutdown() {
+        isShutdown = true;
+        for (int i = 0; i < buckets.length; ++i) {
+            for (Timeout timeout = buckets[i]; timeout != null; timeout = timeout.next) {
+                timeout.isPending = false;
+            }
+            buckets[i] = null;
+        }
+        for (int level = 0; level < LEVELS; ++level) {
+            occupied[level] = 0;
+        }
+        pendingCount = 0;
+        notifyAll();
+    }
+
+    /**
+     * Gets the time at which the wheel next has work to do, which is the
+     * next deadline or a cascade of a higher level on the way to it
+     * @return the time on the wheel's clock, Long.MAX_VALUE when empty
+     */
+    public synchronized long nextEventMillis() {
+        long nextTick = nextEventTick();
+        return (nextTick == Long.MAX_VALUE) ? nextTick : origin + nextTick * tickMillis;
+    }
+
+    /**
+     * Runs every task that is due at the clock's current time on the
+     * calling thread. Meant for manual wheels driven by a VirtualClock.
+     */
+    public void runDueTasks() {
+        List<Timeout> expired = new ArrayList<>();
+        synchronized (this) {
+            long nowTick = currentTick();
+            long nextTick = nextEventTick();
+            // Counted the way the worker would have woken up for it
+            if (nextTick <= nowTick) {
+                wakeups.increment();
+            }
+            while (nextTick <= nowTick) {
+                advanceTo(nextTick, expired);
+                nextTick = nextEventTick();
+            }
+        }
+        runTasks(expired);
+    }
+
+    synchronized boolean cancel(Timeout timeout) {
+        if (!timeout.isPending) {
+            return false;
+        }
+        unlink(timeout);
+        pendingCount -= 1;
+        return true;
+    }
+
+    private void startWorker() {
+        if (isManual || worker != null) {
+            return;
+        }
+        worker = new Thread(this::runWorker, "pomodoro-timing-wheel");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Worker loop, turns the wheel to the next occupied slot and runs
+     * the expired tasks outside the lock
+     */
+    private void runWorker() {
+        List<Timeout> expired = new ArrayList<>();
+        while (true) {
+            synchronized (this) {
+                try {
+                    awaitExpired(expired);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (isShutdown) {
+                    return;
+                }
+            }
+
+            runTasks(expired);
+            expired.clear();
+        }
+    }
+
+    private void runTasks(List<Timeout> expired) {
+        for (Timeout timeout : expired) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                System.err.format("Timer task failed: %s%n", e);
+            }
+        }
+    }
+
+    private long currentTick() {
+        return Math.floorDiv(clock.millis() - origin, tickMillis);
+    }
+
+    /* Should only be called by the worker while holding the lock */
+    private void awaitExpired(List<Timeout> expired) throws InterruptedException {
+        while (!isShutdown) {
+            long nowTick = currentTick();
+            if (pendingCount == 0) {
+                // Nothing to place relative to, keep the cursor close to now
+                currentTick = Math.max(currentTick, nowTick);
+            }
+
+            long nextTick = nextEventTick();
+            if (nextTick <= nowTick) {
+                advanceTo(nextTick, expired);
+                if (!expired.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+
+            wakeupTick = nextTick;
+            if (nextTick == Long.MAX_VALUE) {
+                wait();
+            } else {
+                long sleepMillis = origin + nextTick * tickMillis - clock.millis();
+                TimeUnit.MILLISECONDS.timedWait(this, Math.max(1, sleepMillis));
+            }
+            wakeupTick = Long.MAX_VALUE;
+            wakeups.increment();
+        }
+    }
+
+    /**
+     * Finds the earliest tick at which an occupied slot has to be
+     * expired or cascaded, O(LEVELS) through the occupancy bitmaps
+     */
+    private long nextEventTick() {
+        long next = Long.MAX_VALUE;
+        for (int level = 0; level < LEVELS; ++level) {
+            int shift = level * SLOT_BITS;
+            int cursor = (int) ((currentTick >>> shift) & SLOT_MASK);
+            // Occupied slots are always ahead of the cursor of their level
+            long ahead = occupied[level] & (-2L << cursor);
+            if (ahead == 0) {
+                continue;
+            }
+
+            int slot = Long.numberOfTrailingZeros(ahead);
+            long blockStart = (currentTick >>> (shift + SLOT_BITS)) << (shift + SLOT_BITS);
+            next = Math.min(next, blockStart | ((long) slot << shift));
+        }
+        return next;
+    }
+
+    /**
+     * Turns the wheel to the given tick, cascading the higher levels
+     * whose slot boundary is reached and collecting expired timeouts
+     */
+    private void advanceTo(long tick, List<Timeout> expired) {
+        currentTick = tick;
+        for (int level = LEVELS - 1; level > 0; --level) {
+            int shift = level * SLOT_BITS;
+            if ((tick & ((1L << shift) - 1)) != 0) {
+                continue;
+            }
+
+            int bucket = level * SLOTS + (int) ((tick >>> shift) & SLOT_MASK);
+            Timeout timeout = buckets[bucket];
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                unlink(timeout);
+                insert(timeout);
+                timeout = next;
+            }
+        }
+
+        int bucket = (int) (tick & SLOT_MASK);
+        Timeout timeout = buckets[bucket];
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            unlink(timeout);
+            pendingCount -= 1;
+            expired.add(timeout);
+            timeout = next;
+        }
+    }
+
+    /**
+     * Places a timeout in the lowest level whose current block still
+     * contains its deadline
+     */
+    private void insert(Timeout timeout) {
+        long difference = timeout.deadlineTick ^ currentTick;
+        int level = 0;
+        if (difference >= SLOTS) {
+            level = Math.min((63 - Long.numberOfLeadingZeros(difference)) / SLOT_BITS, LEVELS - 1);
+        }
+        int slot = (int) ((timeout.deadlineTick >>> (level * SLOT_BITS)) & SLOT_MASK);
+        int bucket = level * SLOTS + slot;
+
+        timeout.bucket = bucket;
+        timeout.prev = null;
+        timeout.next = buckets[bucket];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        buckets[bucket] = timeout;
+        occupied[level] |= 1L << slot;
+        timeout.isPending = true;
+    }
+
+    private void unlink(Timeout timeout) {
+        int bucket = timeout.bucket;
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            buckets[bucket] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        if (buckets[bucket] == null) {
+            occupied[bucket / SLOTS] &= ~(1L << (bucket % SLOTS));
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.isPending = false;
+    }
+}
@@ -0,0 +1,90 @@
+package ancientmeme.pomodoro.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A clock that only moves when advanced by hand. Wheels created through
+ * TimingWheel.manual(clock) have no worker thread; instead advancing the
+ * clock steps through every deadline on the way, so each task runs with
+ * the clock reading exactly its deadline. Hours of timer activity can be
+ * simulated in milliseconds of wall time.
+ */
+public class VirtualClock implements Clock {
+    private final List<TimingWheel> wheels;
+    private long now;
+
+    public VirtualClock() {
+        this(0);
+    }
+
+    /**
+     * Constructs a virtual clock starting at the given time
+     * @param startMillis initial reading of the clock
+     */
+    public VirtualClock(long startMillis) {
+        wheels = new ArrayList<>();
+        now = startMillis;
+    }
+
+    @Override
+    public synchronized long millis() {
+        return now;
+    }
+
+    /**
+     * Moves the clock forward, running the due tasks of every attached
+     * wheel in deadline order on the calling thread
+     * @param millis how many milliseconds should pass
+     */
+    public void advance(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Virtual time cannot go backwards");
+        }
+
+        long target;
+        synchronized (this) {
+            target = now + millis;
+        }
+        while (true) {
+            long next = Long.MAX_VALUE;
+            for (TimingWheel wheel : attachedWheels()) {
+                next = Math.min(next, wheel.nextEventMillis());
+            }
+            if (next > target) {
+                break;
+            }
+
+            synchronized (this) {
+                now = Math.max(now, next);
+            }
+            for (TimingWheel wheel : attachedWheels()) {
+                wheel.runDueTasks();
+            }
+        }
+        synchronized (this) {
+            now = target;
+        }
+    }
+
+    /**
+     * Moves the clock forward without running any task, as if the worker
+     * was held up by a GC pause or a busy CPU. The overdue tasks run late,
+     * on the next call to advance.
+     * @param millis how many milliseconds the worker is stalled
+     */
+    public synchronized void stall(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Virtual time cannot go backwards");
+        }
+        now += millis;
+    }
+
+    synchronized void attach(TimingWheel wheel) {
+        wheels.add(wheel);
+    }
+
+    private synchronized List<TimingWheel> attachedWheels() {
+        return new ArrayList<>(wheels);
+    }
+}
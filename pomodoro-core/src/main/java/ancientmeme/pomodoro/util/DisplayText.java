@@ -0,0 +1,72 @@
+package ancientmeme.pomodoro.util;
+
+/**
+ * Precomputed display strings for the clock. Every "mm:ss" value of the
+ * supported range and the mode labels of a day's worth of breaks are
+ * built once, so refreshing the display never formats or allocates.
+ */
+public final class DisplayText {
+    // Sessions and breaks are at most 60 minutes, long breaks double that
+    public static final int MAX_MINUTES = 120;
+    private static final int MAX_SECONDS = MAX_MINUTES * 60;
+    private static final int CACHED_BREAKS = 100;
+    private static final String SESSION_TEXT = "Work Session";
+    private static final String[] TIME_TEXTS = new String[MAX_SECONDS + 1];
+    private static final String[] BREAK_TEXTS = new String[CACHED_BREAKS];
+
+    static {
+        char[] digits = new char[5];
+        digits[2] = ':';
+        for (int seconds = 0; seconds <= MAX_SECONDS; ++seconds) {
+            int minutes = seconds / 60;
+            digits[0] = (char) ('0' + minutes / 10 % 10);
+            digits[1] = (char) ('0' + minutes % 10);
+            digits[3] = (char) ('0' + seconds % 60 / 10);
+            digits[4] = (char) ('0' + seconds % 10);
+            // 120:00 needs a third minute digit
+            TIME_TEXTS[seconds] = (minutes >= 100) ? (minutes / 100) + new String(digits) : new String(digits);
+        }
+
+        for (int count = 0; count < CACHED_BREAKS; ++count) {
+            BREAK_TEXTS[count] = breakText(count);
+        }
+    }
+
+    private DisplayText() {
+    }
+
+    /**
+     * Get the remaining time in a readable format for display purpose
+     * @param remainingSeconds remaining seconds of the session or break
+     * @return remaining time in "mm:ss" format
+     */
+    public static String formatTime(long remainingSeconds) {
+        if (remainingSeconds < 0) {
+            return TIME_TEXTS[0];
+        }
+        if (remainingSeconds > MAX_SECONDS) {
+            return String.format("%02d:%02d", remainingSeconds / 60, remainingSeconds % 60);
+        }
+        return TIME_TEXTS[(int) remainingSeconds];
+    }
+
+    /**
+     * Get display text for the mode of the timer
+     * @param mode the current mode of the timer
+     * @param breakCount the amount of breaks so far
+     * @return the label describing the current mode
+     */
+    public static String modeText(TimerMode mode, int breakCount) {
+        if (mode == TimerMode.SESSION) {
+            return SESSION_TEXT;
+        }
+        if (breakCount >= 0 && breakCount < CACHED_BREAKS) {
+            return BREAK_TEXTS[breakCount];
+        }
+        return breakText(breakCount);
+    }
+
+    private static String breakText(int breakCount) {
+        return String.format("Break %d :)", breakCount);
+    }
+}
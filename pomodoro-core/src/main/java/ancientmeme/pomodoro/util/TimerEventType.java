@@ -0,0 +1,18 @@
+package ancientmeme.pomodoro.util;
+
+/**
+ * Indicate what happened to the timer. Constants may only be
+ * appended, the ordinal is stored in the session journal.
+ */
+public enum TimerEventType {
+    STARTED,
+    SESSION_COMPLETED,
+    BREAK_COMPLETED,
+    LONG_BREAK_COMPLETED,
+    PAUSED,
+    RESUMED,
+    STOPPED,
+    // The remaining time reached a whole second, only published by
+    // TimerPublisher, listeners and the journal never see it
+    TICK
+}
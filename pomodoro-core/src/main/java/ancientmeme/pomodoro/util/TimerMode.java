@@ -0,0 +1,11 @@
+package ancientmeme.pomodoro.util;
+
+/**
+ * Indicate the mode of the timer. Constants may only be
+ * appended, the ordinal is stored in the timer state file.
+ */
+public enum TimerMode {
+    SESSION,
+    BREAK,
+    LONG_BREAK
+}
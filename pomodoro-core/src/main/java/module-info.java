@@ -0,0 +1,14 @@
+module ancientmeme.pomodoro {
+    requires java.prefs;
+    requires transitive java.management;
+    requires transitive jdk.jfr;
+
+    exports ancientmeme.pomodoro;
+    exports ancientmeme.pomodoro.util;
+    exports ancientmeme.pomodoro.timing;
+    exports ancientmeme.pomodoro.history;
+    exports ancientmeme.pomodoro.settings;
+    exports ancientmeme.pomodoro.monitoring;
+    exports ancientmeme.pomodoro.http;
+    exports ancientmeme.pomodoro.control;
+}
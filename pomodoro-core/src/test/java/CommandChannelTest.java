@@ -0,0 +1,107 @@
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.control.CommandChannel;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class CommandChannelTest {
+    @TempDir
+    Path directory;
+    private Path socketFile;
+    private PomodoroTimer timer;
+    private CommandChannel channel;
+
+    @BeforeEach
+    public void setupChannel() throws IOException {
+        TimingWheel wheel = TimingWheel.manual(new VirtualClock());
+        timer = new PomodoroTimer(wheel);
+        timer.setSettingsReference(new UserSettings(new MemorySettingsStore()));
+        socketFile = directory.resolve("pomodoro.sock");
+        channel = CommandChannel.listen(socketFile);
+        channel.serve(timer);
+    }
+
+    @AfterEach
+    public void closeChannel() throws IOException {
+        channel.close();
+    }
+
+    @Test
+    public void commandsTest() throws IOException, InterruptedException {
+        String status = CommandChannel.send(socketFile, "status");
+        Assertions.assertTrue(status.contains("\"isTimerRunning\":false"), status);
+
+        String started = CommandChannel.send(socketFile, "start");
+        Assertions.assertTrue(started.contains("\"isTimerRunning\":true"), started);
+        Assertions.assertTrue(timer.isTimerRunning());
+
+        String unknown = CommandChannel.send(socketFile, "explode");
+        Assertions.assertTrue(unknown.contains("error"), unknown);
+
+        CountDownLatch shown = new CountDownLatch(1);
+        channel.setShowHandler(shown::countDown);
+        CommandChannel.send(socketFile, CommandChannel.SHOW);
+        Assertions.assertTrue(shown.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void pauseWhileStoppedTest() throws IOException {
+        // Nothing to pause or resume, the next start runs normally
+        CommandChannel.send(socketFile, "pause");
+        Assertions.assertFalse(timer.isPause());
+        CommandChannel.send(socketFile, "resume");
+        CommandChannel.send(socketFile, "start");
+
+        String status = CommandChannel.send(socketFile, "status");
+        Assertions.assertTrue(status.contains("\"isTimerRunning\":true"), status);
+        Assertions.assertTrue(status.contains("\"isPause\":false"), status);
+        Assertions.assertFalse(timer.isPause());
+    }
+
+    @Test
+    public void singleInstanceTest() throws IOException {
+        // A second instance cannot take over the running one's socket
+        Assertions.assertTrue(CommandChannel.isRunning(socketFile));
+        Assertions.assertThrows(IOException.class, () -> CommandChannel.listen(socketFile));
+        Assertions.assertTrue(CommandChannel.send(socketFile, "status").contains("SESSION"));
+
+        // Closing removes the socket, so nobody answers any more
+        channel.close();
+        Assertions.assertFalse(Files.exists(socketFile));
+        Assertions.assertThrows(IOException.class, () -> CommandChannel.send(socketFile, "status"));
+        Assertions.assertFalse(CommandChannel.isRunning(socketFile));
+
+        // A socket file left behind by a crash is replaced
+        Files.createFile(socketFile);
+        channel = CommandChannel.listen(socketFile);
+        channel.serve(timer);
+        Assertions.assertTrue(CommandChannel.send(socketFile, "status").contains("SESSION"));
+    }
+
+    @Test
+    public void silentClientTest() throws IOException {
+        // A client that never sends its command is cut off after a second
+        try (SocketChannel silent = SocketChannel.open(UnixDomainSocketAddress.of(socketFile))) {
+            long start = System.nanoTime();
+            Assertions.assertTrue(CommandChannel.send(socketFile, "status").contains("SESSION"));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Assertions.assertTrue(elapsedMillis < 4000, "Waited " + elapsedMillis + " ms");
+            Assertions.assertEquals(-1, silent.read(ByteBuffer.allocate(16)));
+        }
+    }
+}
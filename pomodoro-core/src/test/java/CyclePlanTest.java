@@ -0,0 +1,71 @@
+import ancientmeme.pomodoro.CyclePlan;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.util.TimerMode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+
+public class CyclePlanTest {
+    @Test
+    public void phaseStartTest() {
+        CyclePlan plan = new CyclePlan.Builder()
+                .session(50 * MINUTE).shortBreak(10 * MINUTE)
+                .session(50 * MINUTE).longBreak(30 * MINUTE)
+                .cycles(3)
+                .build();
+        Assertions.assertEquals(4, plan.getPhaseCount());
+        Assertions.assertEquals(140 * MINUTE, plan.getCycleLength());
+        Assertions.assertEquals(3 * 140 * MINUTE, plan.getDailyLength());
+
+        Assertions.assertEquals(0, plan.getStart(0));
+        Assertions.assertEquals(110 * MINUTE, plan.getStart(3));
+        Assertions.assertEquals(TimerMode.LONG_BREAK, plan.getMode(3));
+        // Phases of later cycles, and beyond the day's plan, repeat the cycle
+        Assertions.assertEquals(140 * MINUTE + 50 * MINUTE, plan.getStart(5));
+        Assertions.assertEquals(TimerMode.BREAK, plan.getMode(5));
+        Assertions.assertEquals(plan.getDailyLength(), plan.getStart(plan.getDailyPhaseCount()));
+        Assertions.assertEquals(1000L * 140 * MINUTE, plan.getStart(4000));
+        Assertions.assertEquals(10 * MINUTE, plan.getLength(4001));
+    }
+
+    @Test
+    public void fromSettingsTest() {
+        UserSettings settings = new UserSettings(new MemorySettingsStore());
+        CyclePlan plan = CyclePlan.fromSettings(settings);
+        Assertions.assertEquals(2, plan.getPhaseCount());
+        Assertions.assertEquals(8 * 60 * MINUTE, plan.getDailyLength());
+
+        settings.setIsLongBreakEnabled(true);
+        plan = CyclePlan.fromSettings(settings);
+        Assertions.assertEquals(8, plan.getPhaseCount());
+        Assertions.assertEquals(TimerMode.LONG_BREAK, plan.getMode(7));
+        Assertions.assertEquals(10 * MINUTE, plan.getLength(7));
+        Assertions.assertEquals(TimerMode.BREAK, plan.getMode(5));
+
+        // 50/10 three times then a long break, for ten sessions rounded up to twelve
+        settings.edit()
+                .setSessionLength(50, 0)
+                .setBreakLength(10, 0)
+                .setSessionsPerLongBreak(3)
+                .setDailySessions(10)
+                .commit();
+        plan = CyclePlan.fromSettings(settings);
+        Assertions.assertEquals(6, plan.getPhaseCount());
+        Assertions.assertEquals(4, plan.getCycleCount());
+        Assertions.assertEquals(TimerMode.LONG_BREAK, plan.getMode(5));
+        Assertions.assertEquals(20 * MINUTE, plan.getLength(5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> settings.setDailySessions(0));
+    }
+
+    @Test
+    public void invalidPlanTest() {
+        Assertions.assertThrows(IllegalStateException.class, () -> new CyclePlan.Builder().build());
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> new CyclePlan.Builder().shortBreak(MINUTE).session(MINUTE).build());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new CyclePlan.Builder().session(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CyclePlan.Builder().session(MINUTE).build().getStart(-1));
+    }
+}
@@ -0,0 +1,35 @@
+import ancientmeme.pomodoro.util.DisplayText;
+import ancientmeme.pomodoro.util.TimerMode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DisplayTextTest {
+    @Test
+    public void formatTimeTest() {
+        Assertions.assertEquals("00:00", DisplayText.formatTime(0));
+        Assertions.assertEquals("00:59", DisplayText.formatTime(59));
+        Assertions.assertEquals("25:00", DisplayText.formatTime(25 * 60));
+        Assertions.assertEquals("59:59", DisplayText.formatTime(60 * 60 - 1));
+        Assertions.assertEquals("120:00", DisplayText.formatTime(120 * 60));
+    }
+
+    @Test
+    public void formatTimeOutOfRangeTest() {
+        Assertions.assertEquals("00:00", DisplayText.formatTime(-5));
+        Assertions.assertEquals("121:01", DisplayText.formatTime(121 * 60 + 1));
+    }
+
+    @Test
+    public void formatTimeIsCachedTest() {
+        Assertions.assertSame(DisplayText.formatTime(90), DisplayText.formatTime(90));
+    }
+
+    @Test
+    public void modeTextTest() {
+        Assertions.assertEquals("Work Session", DisplayText.modeText(TimerMode.SESSION, 3));
+        Assertions.assertEquals("Break 3 :)", DisplayText.modeText(TimerMode.BREAK, 3));
+        Assertions.assertEquals("Break 250 :)", DisplayText.modeText(TimerMode.BREAK, 250));
+        Assertions.assertSame(DisplayText.modeText(TimerMode.BREAK, 7),
+                              DisplayText.modeText(TimerMode.BREAK, 7));
+    }
+}
@@ -0,0 +1,115 @@
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.history.FocusStatistics;
+import ancientmeme.pomodoro.history.JournalReader;
+import ancientmeme.pomodoro.history.SessionJournal;
+import ancientmeme.pomodoro.history.SessionRecord;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import ancientmeme.pomodoro.util.TimerEventType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+
+public class FocusStatisticsTest {
+    private static final long DAY = 24 * 60 * MINUTE;
+    // Monday 2024-01-01 00:00 UTC
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+    private static final long MONDAY_MILLIS = MONDAY.toEpochDay() * DAY;
+    private long wallTime;
+    private FocusStatistics statistics;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setupStatistics() {
+        wallTime = MONDAY_MILLIS;
+        statistics = new FocusStatistics(ZoneOffset.UTC, () -> wallTime);
+    }
+
+    @Test
+    public void focusTimePerPeriodTest() {
+        completeSession(MONDAY_MILLIS + 9 * 60 * MINUTE, 25 * MINUTE);
+        completeSession(MONDAY_MILLIS + 10 * 60 * MINUTE, 25 * MINUTE);
+        completeSession(MONDAY_MILLIS + 3 * DAY, 50 * MINUTE);
+        completeSession(MONDAY_MILLIS + 8 * DAY, 30 * MINUTE);
+
+        Assertions.assertEquals(50 * MINUTE, statistics.getFocusMillis(MONDAY));
+        Assertions.assertEquals(2, statistics.getCompletedSessions(MONDAY));
+        Assertions.assertEquals(100 * MINUTE, statistics.getWeekFocusMillis(MONDAY.plusDays(6)));
+        Assertions.assertEquals(30 * MINUTE, statistics.getWeekFocusMillis(MONDAY.plusDays(7)));
+        Assertions.assertEquals(130 * MINUTE, statistics.getMonthFocusMillis(MONDAY.plusDays(20)));
+        Assertions.assertEquals(0, statistics.getMonthFocusMillis(MONDAY.minusDays(1)));
+    }
+
+    @Test
+    public void streakTest() {
+        completeSession(MONDAY_MILLIS, 25 * MINUTE);
+        completeSession(MONDAY_MILLIS + DAY, 25 * MINUTE);
+        completeSession(MONDAY_MILLIS + DAY + MINUTE, 25 * MINUTE);
+        completeSession(MONDAY_MILLIS + 2 * DAY, 25 * MINUTE);
+        completeSession(MONDAY_MILLIS + 5 * DAY, 25 * MINUTE);
+
+        Assertions.assertEquals(3, statistics.getLongestStreak());
+        Assertions.assertEquals(1, statistics.getCurrentStreak(MONDAY.plusDays(5)));
+        Assertions.assertEquals(1, statistics.getCurrentStreak(MONDAY.plusDays(6)));
+        Assertions.assertEquals(0, statistics.getCurrentStreak(MONDAY.plusDays(7)));
+    }
+
+    @Test
+    public void timerEventsTest() {
+        VirtualClock clock = new VirtualClock();
+        PomodoroTimer timer = new PomodoroTimer(TimingWheel.manual(clock));
+        UserSettings settings = new UserSettings(new MemorySettingsStore());
+        timer.setSettingsReference(settings);
+        timer.addListener(statistics);
+
+        timer.startTimer();
+        clock.advance(settings.getSessionLength() + settings.getBreakLength());
+        // The second session is stopped halfway
+        clock.advance(10 * MINUTE);
+        timer.stopTimer();
+        // Stopping during a break adds no focus time
+        timer.startTimer();
+        clock.advance(settings.getSessionLength() + MINUTE);
+        timer.stopTimer();
+
+        Assertions.assertEquals(2 * settings.getSessionLength() + 10 * MINUTE, statistics.getFocusMillis(MONDAY));
+        Assertions.assertEquals(2, statistics.getCompletedSessions(MONDAY));
+        Assertions.assertEquals(2.0 / 3, statistics.getCompletionRate(), 1e-9);
+    }
+
+    @Test
+    public void replayJournalTest() throws IOException {
+        Path file = tempDir.resolve("journal.bin");
+        try (SessionJournal journal = new SessionJournal(file)) {
+            journal.append(new SessionRecord(MONDAY_MILLIS, TimerEventType.STARTED, 25 * MINUTE, 0));
+            journal.append(new SessionRecord(MONDAY_MILLIS + 25 * MINUTE, TimerEventType.SESSION_COMPLETED, 25 * MINUTE, 1));
+            journal.append(new SessionRecord(MONDAY_MILLIS + DAY, TimerEventType.STARTED, 25 * MINUTE, 0));
+            journal.append(new SessionRecord(MONDAY_MILLIS + DAY, TimerEventType.STOPPED, 5 * MINUTE, 0));
+        }
+        try (JournalReader reader = new JournalReader(file)) {
+            statistics.replay(reader);
+        }
+
+        long[] days = new long[3];
+        statistics.copyFocusMillis(MONDAY.minusDays(1), days);
+        Assertions.assertArrayEquals(new long[] {0, 25 * MINUTE, 5 * MINUTE}, days);
+        Assertions.assertEquals(0.5, statistics.getCompletionRate(), 1e-9);
+    }
+
+    private void completeSession(long epochMillis, long duration) {
+        statistics.record(epochMillis, TimerEventType.STARTED, duration);
+        statistics.record(epochMillis, TimerEventType.SESSION_COMPLETED, duration);
+    }
+}
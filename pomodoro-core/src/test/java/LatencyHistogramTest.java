@@ -0,0 +1,68 @@
+import ancientmeme.pomodoro.monitoring.LatencyHistogram;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    @BeforeEach
+    public void setupHistogram() {
+        histogram = new LatencyHistogram(60 * 60 * 1000);
+    }
+
+    @Test
+    public void emptyHistogramTest() {
+        Assertions.assertEquals(0, histogram.getTotalCount());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(99));
+        Assertions.assertEquals(0, histogram.getMin());
+        Assertions.assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void smallValuesAreExactTest() {
+        for (int value = 1; value <= 50; ++value) {
+            histogram.record(value);
+        }
+
+        Assertions.assertEquals(50, histogram.getTotalCount());
+        Assertions.assertEquals(25, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(50, histogram.getValueAtPercentile(100));
+        Assertions.assertEquals(1, histogram.getMin());
+        Assertions.assertEquals(25.5, histogram.getMean());
+    }
+
+    @Test
+    public void relativePrecisionTest() {
+        for (long value = 1; value <= 1_000_000; value = value * 3 / 2 + 1) {
+            histogram.reset();
+            histogram.record(value);
+            histogram.record(value + 1);
+
+            // Reported at or above the true value, by at most 1/32 of it
+            long reported = histogram.getValueAtPercentile(50);
+            Assertions.assertTrue(reported >= value, "Reported " + reported + " for " + value);
+            Assertions.assertTrue(reported <= value + value / 32, "Reported " + reported + " for " + value);
+        }
+    }
+
+    @Test
+    public void tailPercentilesTest() {
+        for (int i = 0; i < 2000; ++i) {
+            histogram.record(2);
+        }
+        for (int i = 0; i < 10; ++i) {
+            histogram.record(5000);
+        }
+        histogram.record(-5);
+        histogram.record(2 * 60 * 60 * 1000);
+
+        Assertions.assertEquals(2, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(2, histogram.getValueAtPercentile(99));
+        long p999 = histogram.getValueAtPercentile(99.9);
+        Assertions.assertTrue(p999 >= 5000 && p999 < 5200, "p99.9 was " + p999);
+        // Values beyond the trackable range keep an exact maximum
+        Assertions.assertEquals(2 * 60 * 60 * 1000, histogram.getMax());
+        Assertions.assertEquals(0, histogram.getMin());
+    }
+}
@@ -0,0 +1,84 @@
+import ancientmeme.pomodoro.settings.MappedSettingsStore;
+import ancientmeme.pomodoro.settings.SettingsKey;
+import ancientmeme.pomodoro.settings.UserSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+
+public class MappedSettingsStoreTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void newFileTest() throws IOException {
+        MappedSettingsStore store = new MappedSettingsStore(tempDir.resolve("settings.bin"));
+        Assertions.assertTrue(store.isNewFile());
+        Assertions.assertEquals(7, store.getLong(SettingsKey.SESSION_LENGTH, 7));
+        Assertions.assertTrue(store.getBoolean(SettingsKey.ON_TOP, true));
+    }
+
+    @Test
+    public void reopenTest() throws IOException {
+        Path file = tempDir.resolve("settings.bin");
+        MappedSettingsStore store = new MappedSettingsStore(file);
+        store.putLong(SettingsKey.BREAK_LENGTH, 3 * MINUTE);
+        store.putBoolean(SettingsKey.LIGHT_MODE, true);
+        store.putDouble(SettingsKey.WINDOW_X, -12.5);
+        store.flush();
+
+        MappedSettingsStore loadedStore = new MappedSettingsStore(file);
+        Assertions.assertFalse(loadedStore.isNewFile());
+        Assertions.assertEquals(3 * MINUTE, loadedStore.getLong(SettingsKey.BREAK_LENGTH, 0));
+        Assertions.assertTrue(loadedStore.getBoolean(SettingsKey.LIGHT_MODE, false));
+        Assertions.assertEquals(-12.5, loadedStore.getDouble(SettingsKey.WINDOW_X, 0));
+        Assertions.assertEquals(4, loadedStore.getLong(SettingsKey.SESSION_LENGTH, 4));
+    }
+
+    @Test
+    public void userSettingsTest() throws IOException {
+        Path file = tempDir.resolve("settings.bin");
+        UserSettings settings = new UserSettings(new MappedSettingsStore(file));
+        settings.setSessionLength(40, 0);
+        settings.setWindowY(300);
+        settings.flush();
+
+        UserSettings loadedSettings = new UserSettings(new MappedSettingsStore(file));
+        Assertions.assertEquals(40 * MINUTE, loadedSettings.getSessionLength());
+        Assertions.assertEquals(300, loadedSettings.getWindowY());
+    }
+
+    @Test
+    public void appendedKeysTest() throws IOException {
+        Path file = tempDir.resolve("settings.bin");
+        MappedSettingsStore store = new MappedSettingsStore(file);
+        store.putLong(SettingsKey.SESSION_LENGTH, 40 * MINUTE);
+        store.flush();
+        // Cut the file back to the keys of the first release
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(16 + Long.BYTES * (SettingsKey.WINDOW_Y.ordinal() + 1));
+        }
+
+        MappedSettingsStore loadedStore = new MappedSettingsStore(file);
+        Assertions.assertFalse(loadedStore.isNewFile());
+        Assertions.assertEquals(40 * MINUTE, loadedStore.getLong(SettingsKey.SESSION_LENGTH, 0));
+        Assertions.assertEquals(16, loadedStore.getLong(SettingsKey.DAILY_SESSIONS, 16));
+    }
+
+    @Test
+    public void corruptFileTest() throws IOException {
+        Path file = tempDir.resolve("settings.bin");
+        Files.write(file, new byte[] {1, 2, 3});
+
+        MappedSettingsStore store = new MappedSettingsStore(file);
+        Assertions.assertTrue(store.isNewFile());
+        Assertions.assertEquals(9, store.getLong(SettingsKey.SESSION_LENGTH, 9));
+    }
+}
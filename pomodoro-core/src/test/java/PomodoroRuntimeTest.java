@@ -0,0 +1,78 @@
+import ancientmeme.pomodoro.PomodoroRuntime;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PomodoroRuntimeTest {
+    private PomodoroRuntime runtime;
+
+    @BeforeEach
+    public void setupRuntime() {
+        runtime = new PomodoroRuntime(new TimingWheel(1));
+    }
+
+    @Test
+    public void daemonThreadsTest() throws InterruptedException {
+        AtomicBoolean isDaemon = new AtomicBoolean();
+        CountDownLatch ran = new CountDownLatch(1);
+        runtime.getIoExecutor().execute(() -> {
+            isDaemon.set(Thread.currentThread().isDaemon());
+            ran.countDown();
+        });
+
+        Assertions.assertTrue(ran.await(2, TimeUnit.SECONDS));
+        Assertions.assertTrue(isDaemon.get());
+        Assertions.assertTrue(runtime.shutdown(1000));
+    }
+
+    @Test
+    public void shutdownDrainsPendingWorkTest() {
+        AtomicInteger written = new AtomicInteger();
+        for (int i = 0; i < 10; ++i) {
+            runtime.getIoExecutor().execute(() -> {
+                sleep(20);
+                written.incrementAndGet();
+            });
+        }
+
+        Assertions.assertTrue(runtime.shutdown(2000));
+        Assertions.assertEquals(10, written.get());
+        Assertions.assertEquals(0, runtime.getTimingWheel().getPendingCount());
+    }
+
+    @Test
+    public void shutdownBudgetTest() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        runtime.getIoExecutor().execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(60 * 1000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        Assertions.assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        Assertions.assertFalse(runtime.shutdown(100));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Assertions.assertTrue(elapsed < 1000, "Shutdown took " + elapsed + " ms");
+        // Work still running once the budget is spent is interrupted
+        Assertions.assertTrue(interrupted.await(2, TimeUnit.SECONDS));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
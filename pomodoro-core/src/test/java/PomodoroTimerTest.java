@@ -0,0 +1,326 @@
+
+import ancientmeme.pomodoro.CyclePlan;
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerEvent;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import ancientmeme.pomodoro.util.TimerEventType;
+import ancientmeme.pomodoro.util.TimerMode;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PomodoroTimerTest {
+    private final long SECOND = 1000;
+    private final long MINUTE = 60 * SECOND;
+    private final long _defaultSessionLength = 25 * MINUTE;
+
+    private VirtualClock clock;
+    private PomodoroTimer timer;
+    private UserSettings settings;
+
+    @BeforeEach
+    public void setupTest() {
+        clock = new VirtualClock();
+        timer = new PomodoroTimer(TimingWheel.manual(clock));
+        settings = new UserSettings(new MemorySettingsStore());
+
+        timer.setSettingsReference(settings);
+    }
+
+    @AfterEach
+    public void teardownTest() {
+        timer.shutdownTimer();
+    }
+
+    @Test
+    public void defaultRemainingTimeTest() {
+        Assertions.assertEquals(25 * MINUTE, timer.getRemainingTime());
+    }
+
+    @Test
+    public void startTimerTest() {
+        timer.startTimer();
+        sleep(1000);
+
+        assertInRange(_defaultSessionLength, 1000);
+    }
+
+    @Test
+    public void pauseTimerTest() {
+        timer.startTimer();
+        sleep(1000);
+        timer.pauseTimer();
+        sleep(500);
+
+        assertInRange(_defaultSessionLength, 1000);
+    }
+
+    @Test
+    public void resumeTimerTest() {
+        timer.startTimer();
+        sleep(2000);
+        timer.pauseTimer();
+        sleep(1000);
+        timer.resumeTimer();
+        sleep(1000);
+
+        assertInRange(_defaultSessionLength, 3000);
+    }
+
+    @Test
+    public void stopTimerTest() {
+        timer.startTimer();
+        sleep(1000);
+        timer.stopTimer();
+        Assertions.assertEquals(25 * MINUTE, timer.getRemainingTime());
+    }
+
+    @Test
+    public void setTimerPropertyTest() {
+        timer.setSessionLength(5, 0);
+        timer.setBreakLength(2, 0);
+        Assertions.assertEquals(5 * MINUTE, timer.getSessionLength());
+        Assertions.assertEquals(2 * MINUTE, timer.getBreakLength());
+
+        // GetRemainingTime should change to reflect new settings
+        Assertions.assertEquals(5 * MINUTE, timer.getRemainingTime());
+    }
+
+    @Test
+    public void resetTimerTest() {
+        timer.setSessionLength(6, 0);
+        timer.setBreakLength(3, 0);
+        timer.startTimer();
+        sleep(SECOND);
+        timer.resetTimer();
+
+        Assertions.assertEquals(_defaultSessionLength, timer.getRemainingTime());
+        Assertions.assertEquals(25 * MINUTE, timer.getSessionLength());
+        Assertions.assertEquals(5 * MINUTE, timer.getBreakLength());
+    }
+
+    @Test
+    public void pauseOverSessionLengthTest() {
+        timer.setSessionLength(0, 2);
+        timer.startTimer();
+        timer.pauseTimer();
+        sleep(3 * SECOND);
+        assertInRange(2 * SECOND, 0);
+
+        // start the timer again and confirm it works correctly
+        timer.resumeTimer();
+        sleep(SECOND);
+        assertInRange(2 * SECOND, SECOND);
+    }
+
+    @Test
+    public void repeatedRestartTest() {
+        for (int i = 0; i < 20; ++i) {
+            timer.startTimer();
+            sleep(60);
+            timer.stopTimer();
+        }
+        timer.startTimer();
+        sleep(SECOND);
+        assertInRange(_defaultSessionLength, SECOND);
+    }
+
+    @Test
+    public void restartDuringPauseTest() {
+        timer.startTimer();
+        timer.pauseTimer();
+        timer.stopTimer();
+
+        timer.startTimer();
+        sleep(SECOND);
+        assertInRange(_defaultSessionLength, SECOND);
+    }
+
+    @Test
+    public void stopAfterFinishedTest() {
+        timer.setSessionLength(0, 1);
+        timer.startTimer();
+        sleep(1200);
+        try {
+            timer.stopTimer();
+        } catch (Exception e) {
+            Assertions.fail("Stopping after timer finished shouldn't throw exceptions");
+        }
+    }
+
+    @Test
+    public void getTimerModeTest() {
+        Assertions.assertEquals(TimerMode.SESSION, timer.getTimerMode());
+    }
+
+    @Test
+    public void switchToBreakTest() {
+        timer.setSessionLength(0, 1);
+        timer.startTimer();
+        sleep(2 * SECOND);
+        Assertions.assertEquals(TimerMode.BREAK, timer.getTimerMode());
+    }
+
+    @Test
+    public void switchExactlyAtDeadlineTest() {
+        timer.startTimer();
+        sleep(_defaultSessionLength - 1);
+        Assertions.assertEquals(TimerMode.SESSION, timer.getTimerMode());
+        Assertions.assertEquals(1, timer.getRemainingTime());
+
+        sleep(1);
+        Assertions.assertEquals(TimerMode.BREAK, timer.getTimerMode());
+        Assertions.assertEquals(5 * MINUTE, timer.getRemainingTime());
+    }
+
+    @Test
+    public void longBreakCycleTest() {
+        settings.setIsLongBreakEnabled(true);
+        timer.startTimer();
+
+        // Four sessions, three short breaks, then the doubled fourth break
+        long fourthBreakStart = 4 * _defaultSessionLength + 3 * 5 * MINUTE;
+        sleep(fourthBreakStart);
+        Assertions.assertEquals(TimerMode.LONG_BREAK, timer.getTimerMode());
+        Assertions.assertEquals(4, timer.getBreakCount());
+        Assertions.assertEquals(10 * MINUTE, timer.getRemainingTime());
+
+        sleep(10 * MINUTE);
+        Assertions.assertEquals(TimerMode.SESSION, timer.getTimerMode());
+        Assertions.assertEquals(_defaultSessionLength, timer.getRemainingTime());
+    }
+
+    @Test
+    public void workdayOfSessionsTest() {
+        timer.startTimer();
+
+        // Eight hours are sixteen full 25 + 5 minute cycles
+        sleep(8 * 60 * MINUTE);
+        Assertions.assertEquals(TimerMode.SESSION, timer.getTimerMode());
+        Assertions.assertEquals(16, timer.getBreakCount());
+        Assertions.assertEquals(_defaultSessionLength, timer.getRemainingTime());
+    }
+
+    @Test
+    public void lateWakeupKeepsScheduleTest() {
+        timer.startTimer();
+
+        // The session ends 300ms late, the break still ends on schedule
+        sleep(_defaultSessionLength - 1);
+        clock.stall(301);
+        sleep(0);
+        Assertions.assertEquals(TimerMode.BREAK, timer.getTimerMode());
+        Assertions.assertEquals(5 * MINUTE - 300, timer.getRemainingTime());
+        Assertions.assertEquals(300, timer.getMetrics().getLastTransitionLateness());
+
+        // Every later cycle stays on the original schedule
+        sleep(8 * 60 * MINUTE - _defaultSessionLength - 300);
+        Assertions.assertEquals(TimerMode.SESSION, timer.getTimerMode());
+        Assertions.assertEquals(16, timer.getBreakCount());
+        Assertions.assertEquals(_defaultSessionLength, timer.getRemainingTime());
+        Assertions.assertEquals(300, timer.getMetrics().getMaxTransitionLateness());
+        Assertions.assertEquals(32, timer.getMetrics().getTransitionCount());
+    }
+
+    @Test
+    public void missedPhaseRestartsScheduleTest() {
+        timer.startTimer();
+
+        // Stalled through the whole break, the break starts over from now
+        sleep(_defaultSessionLength - 1);
+        clock.stall(6 * MINUTE);
+        sleep(0);
+        Assertions.assertEquals(TimerMode.BREAK, timer.getTimerMode());
+        Assertions.assertEquals(1, timer.getBreakCount());
+        Assertions.assertEquals(5 * MINUTE, timer.getRemainingTime());
+    }
+
+    @Test
+    public void customPlanTest() {
+        // 50/10 three times, then a 30 minute long break
+        timer.setPlan(new CyclePlan.Builder()
+                .session(50 * MINUTE).shortBreak(10 * MINUTE)
+                .session(50 * MINUTE).shortBreak(10 * MINUTE)
+                .session(50 * MINUTE).longBreak(30 * MINUTE)
+                .cycles(2)
+                .build());
+        Assertions.assertEquals(50 * MINUTE, timer.getRemainingTime());
+        timer.startTimer();
+
+        sleep(170 * MINUTE);
+        Assertions.assertEquals(TimerMode.LONG_BREAK, timer.getTimerMode());
+        Assertions.assertEquals(5, timer.getPhase());
+        Assertions.assertEquals(3, timer.getBreakCount());
+        Assertions.assertEquals(30 * MINUTE, timer.getRemainingTime());
+
+        sleep(30 * MINUTE);
+        Assertions.assertEquals(TimerMode.SESSION, timer.getTimerMode());
+        Assertions.assertEquals(50 * MINUTE, timer.getRemainingTime());
+    }
+
+    @Test
+    public void upcomingTransitionsTest() {
+        settings.setIsLongBreakEnabled(true);
+        // Sixteen sessions, twelve short and four long breaks
+        long workday = 16 * _defaultSessionLength + 12 * 5 * MINUTE + 4 * 10 * MINUTE;
+        Assertions.assertEquals(workday, timer.getTimeUntilPlanEnd());
+        Assertions.assertEquals(_defaultSessionLength, timer.getTimeUntilPhase(1));
+
+        timer.startTimer();
+        sleep(10 * MINUTE);
+        // The long break is phase 7, after four sessions and three breaks
+        Assertions.assertEquals(4 * _defaultSessionLength + 3 * 5 * MINUTE - 10 * MINUTE,
+                                timer.getTimeUntilPhase(7));
+        Assertions.assertEquals(workday - 10 * MINUTE, timer.getTimeUntilPlanEnd());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> timer.getTimeUntilPhase(0));
+
+        // A pause pushes every later phase back
+        timer.pauseTimer();
+        sleep(3 * MINUTE);
+        Assertions.assertEquals(workday - 10 * MINUTE, timer.getTimeUntilPlanEnd());
+        timer.resumeTimer();
+
+        sleep(workday - 10 * MINUTE);
+        Assertions.assertEquals(32, timer.getPhase());
+        Assertions.assertEquals(0, timer.getTimeUntilPlanEnd());
+    }
+
+    @Test
+    public void eventTimeTest() {
+        List<TimerEvent> events = new ArrayList<>();
+        timer.addListener(events::add);
+        long startTime = clock.millis();
+        timer.startTimer();
+        sleep(_defaultSessionLength + 3 * SECOND);
+        timer.stopTimer();
+
+        // A completion is stamped with its deadline, other events with their own time
+        Assertions.assertEquals(TimerEventType.SESSION_COMPLETED, events.get(1).getType());
+        Assertions.assertEquals(startTime, events.get(0).getTime());
+        Assertions.assertEquals(startTime + _defaultSessionLength, events.get(1).getTime());
+        Assertions.assertEquals(clock.millis(), events.get(2).getTime());
+    }
+
+    /**
+     * Check if exactly the expected time has elapsed
+     * @param sessionLength The total time of the current session
+     * @param duration how much time should pass
+     */
+    private void assertInRange(long sessionLength, long duration) {
+        long elapsedTime = sessionLength - timer.getRemainingTime();
+        Assertions.assertEquals(duration, elapsedTime);
+    }
+
+    /**
+     * Shorthand for advancing the virtual clock, runs every
+     * transition that falls inside the interval
+     * @param milliseconds how much virtual time should pass
+     */
+    private void sleep(long milliseconds) {
+        clock.advance(milliseconds);
+    }
+}
@@ -0,0 +1,118 @@
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.history.JournalReader;
+import ancientmeme.pomodoro.history.SessionJournal;
+import ancientmeme.pomodoro.history.SessionRecord;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import ancientmeme.pomodoro.util.TimerEventType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+
+public class SessionJournalTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void appendAndReadTest() throws IOException {
+        Path file = tempDir.resolve("journal.bin");
+        try (SessionJournal journal = new SessionJournal(file)) {
+            journal.append(new SessionRecord(1000, TimerEventType.SESSION_COMPLETED, 25 * MINUTE, 0));
+            journal.append(new SessionRecord(2000, TimerEventType.BREAK_COMPLETED, 5 * MINUTE, 1));
+        }
+        try (SessionJournal journal = new SessionJournal(file)) {
+            journal.append(new SessionRecord(3000, TimerEventType.STOPPED, 42, 1));
+        }
+
+        List<SessionRecord> records = readAll(file);
+        Assertions.assertEquals(3, records.size());
+        Assertions.assertEquals(TimerEventType.SESSION_COMPLETED, records.get(0).getType());
+        Assertions.assertEquals(25 * MINUTE, records.get(0).getDuration());
+        Assertions.assertEquals(2000, records.get(1).getEpochMillis());
+        Assertions.assertEquals(1, records.get(2).getBreakCount());
+        Assertions.assertEquals(TimerEventType.STOPPED, records.get(2).getType());
+    }
+
+    @Test
+    public void tornRecordTest() throws IOException {
+        Path file = tempDir.resolve("journal.bin");
+        try (SessionJournal journal = new SessionJournal(file)) {
+            journal.append(new SessionRecord(1000, TimerEventType.SESSION_COMPLETED, 25 * MINUTE, 0));
+        }
+        // A crash in the middle of a write leaves part of a record behind
+        Files.write(file, new byte[] {1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+        Assertions.assertEquals(1, readAll(file).size());
+
+        try (SessionJournal journal = new SessionJournal(file)) {
+            journal.append(new SessionRecord(2000, TimerEventType.PAUSED, 0, 0));
+        }
+        List<SessionRecord> records = readAll(file);
+        Assertions.assertEquals(2, records.size());
+        Assertions.assertEquals(TimerEventType.PAUSED, records.get(1).getType());
+    }
+
+    @Test
+    public void notAJournalTest() throws IOException {
+        Path file = tempDir.resolve("journal.bin");
+        Files.write(file, new byte[32]);
+        Assertions.assertThrows(IOException.class, () -> new SessionJournal(file));
+    }
+
+    @Test
+    public void timerEventsTest() throws IOException {
+        Path file = tempDir.resolve("journal.bin");
+        VirtualClock clock = new VirtualClock();
+        PomodoroTimer timer = new PomodoroTimer(TimingWheel.manual(clock));
+        UserSettings settings = new UserSettings(new MemorySettingsStore());
+        settings.setIsLongBreakEnabled(true);
+        timer.setSettingsReference(settings);
+
+        try (SessionJournal journal = new SessionJournal(file, clock::millis)) {
+            timer.addListener(journal);
+            timer.startTimer();
+            // Four sessions and breaks, the last break being a long break
+            clock.advance(4 * 25 * MINUTE + 3 * 5 * MINUTE + 10 * MINUTE);
+            clock.advance(MINUTE);
+            timer.pauseTimer();
+            clock.advance(MINUTE);
+            timer.resumeTimer();
+            timer.stopTimer();
+        }
+
+        List<TimerEventType> types = new ArrayList<>();
+        for (SessionRecord record : readAll(file)) {
+            types.add(record.getType());
+        }
+        Assertions.assertEquals(List.of(
+                TimerEventType.STARTED,
+                TimerEventType.SESSION_COMPLETED, TimerEventType.BREAK_COMPLETED,
+                TimerEventType.SESSION_COMPLETED, TimerEventType.BREAK_COMPLETED,
+                TimerEventType.SESSION_COMPLETED, TimerEventType.BREAK_COMPLETED,
+                TimerEventType.SESSION_COMPLETED, TimerEventType.LONG_BREAK_COMPLETED,
+                TimerEventType.PAUSED, TimerEventType.RESUMED, TimerEventType.STOPPED), types);
+
+        List<SessionRecord> records = readAll(file);
+        Assertions.assertEquals(10 * MINUTE, records.get(8).getDuration());
+        Assertions.assertEquals(MINUTE, records.get(10).getDuration());
+        Assertions.assertEquals(MINUTE, records.get(11).getDuration());
+    }
+
+    private List<SessionRecord> readAll(Path file) throws IOException {
+        List<SessionRecord> records = new ArrayList<>();
+        try (JournalReader reader = new JournalReader(file)) {
+            reader.forEachRemaining(records::add);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,231 @@
+import ancientmeme.pomodoro.PomodoroRuntime;
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.http.TimerHttpServer;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+import static ancientmeme.pomodoro.PomodoroTimer.SECOND;
+
+public class TimerHttpServerTest {
+    private VirtualClock clock;
+    private PomodoroTimer timer;
+    private PomodoroRuntime runtime;
+    private TimerHttpServer server;
+
+    @BeforeEach
+    public void setupServer() throws IOException {
+        clock = new VirtualClock();
+        TimingWheel wheel = TimingWheel.manual(clock);
+        timer = new PomodoroTimer(wheel);
+        timer.setSettingsReference(new UserSettings(new MemorySettingsStore()));
+        runtime = new PomodoroRuntime(wheel);
+        server = new TimerHttpServer(timer, 0, runtime);
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop();
+        runtime.shutdown(1000);
+    }
+
+    @Test
+    public void statusAndCommandsTest() throws IOException {
+        HttpURLConnection status = open("/status", "GET");
+        Assertions.assertEquals(200, status.getResponseCode());
+        Assertions.assertEquals("application/json", status.getContentType());
+        String json = read(status.getInputStream());
+        Assertions.assertTrue(json.contains("\"mode\":\"SESSION\""), json);
+        Assertions.assertTrue(json.contains("\"remainingSeconds\":1500"), json);
+        Assertions.assertTrue(json.contains("\"isTimerRunning\":false"), json);
+
+        HttpURLConnection start = open("/start", "POST");
+        Assertions.assertEquals(200, start.getResponseCode());
+        Assertions.assertTrue(read(start.getInputStream()).contains("\"isTimerRunning\":true"));
+        Assertions.assertTrue(timer.isTimerRunning());
+
+        clock.advance(5 * SECOND);
+        HttpURLConnection pause = open("/pause", "POST");
+        Assertions.assertTrue(read(pause.getInputStream()).contains("\"remainingSeconds\":1495"));
+        Assertions.assertTrue(timer.isPause());
+    }
+
+    @Test
+    public void refusedRequestsTest() throws IOException {
+        Assertions.assertEquals(405, open("/start", "GET").getResponseCode());
+        Assertions.assertEquals(404, open("/status/extra", "GET").getResponseCode());
+
+        // A web page must not drive the timer through the user's browser,
+        // HttpURLConnection drops the Origin header so it is sent by hand
+        String response = rawRequest("POST /start HTTP/1.1\r\nHost: 127.0.0.1\r\n"
+                + "Origin: http://example.com\r\nContent-Length: 0\r\nConnection: close\r\n\r\n");
+        Assertions.assertTrue(response.startsWith("HTTP/1.1 403"), response);
+        Assertions.assertFalse(timer.isTimerRunning());
+    }
+
+    @Test
+    public void eventStreamTest() throws IOException {
+        List<BufferedReader> streams = new ArrayList<>();
+        for (int i = 0; i < 50; ++i) {
+            HttpURLConnection events = open("/events", "GET");
+            Assertions.assertEquals("text/event-stream", events.getContentType());
+            BufferedReader stream = new BufferedReader(
+                    new InputStreamReader(events.getInputStream(), StandardCharsets.UTF_8));
+            Assertions.assertEquals("event: state", stream.readLine());
+            Assertions.assertTrue(stream.readLine().contains("\"isTimerRunning\":false"));
+            Assertions.assertEquals("", stream.readLine());
+            streams.add(stream);
+        }
+        Assertions.assertEquals(50, server.getEventClientCount());
+        // Every client is written by the one selector thread
+        Assertions.assertEquals(1, countThreads("pomodoro-http"));
+
+        // Ticks are conflated, so every one is read before the next
+        timer.startTimer();
+        for (BufferedReader stream : streams) {
+            Assertions.assertEquals("event: started", stream.readLine());
+            stream.readLine();
+            stream.readLine();
+        }
+        clock.advance(SECOND);
+        for (BufferedReader stream : streams) {
+            Assertions.assertEquals("event: tick", stream.readLine());
+            Assertions.assertTrue(stream.readLine().contains("\"remainingSeconds\":1499"));
+            stream.readLine();
+        }
+
+        server.stop();
+        Assertions.assertEquals(0, server.getEventClientCount());
+        Assertions.assertFalse(timer.getPublisher().hasSubscribers());
+    }
+
+    @Test
+    public void slowClientKeepsTransitionsTest() throws IOException {
+        try (Socket slow = new Socket()) {
+            slow.setReceiveBufferSize(4096);
+            slow.connect(new InetSocketAddress("127.0.0.1", server.getPort()));
+            slow.setSoTimeout(5000);
+            slow.getOutputStream().write(("GET /events HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            BufferedReader slowStream = new BufferedReader(
+                    new InputStreamReader(slow.getInputStream(), StandardCharsets.UTF_8));
+            while (!"event: state".equals(slowStream.readLine())) {
+                // Skip the response headers
+            }
+
+            // The slow client reads nothing through a workday of ticks
+            timer.startTimer();
+            clock.advance(8 * 60 * MINUTE);
+
+            // Another client is served meanwhile
+            HttpURLConnection fast = open("/events", "GET");
+            BufferedReader fastStream = new BufferedReader(
+                    new InputStreamReader(fast.getInputStream(), StandardCharsets.UTF_8));
+            Assertions.assertEquals("event: state", fastStream.readLine());
+
+            // Ticks were skipped, but no transition was lost
+            int sessions = 0;
+            int breaks = 0;
+            while (sessions < 16 || breaks < 16) {
+                String line = slowStream.readLine();
+                Assertions.assertNotNull(line);
+                if (line.equals("event: session_completed")) {
+                    sessions += 1;
+                } else if (line.equals("event: break_completed")) {
+                    breaks += 1;
+                }
+            }
+            Assertions.assertEquals(16, timer.getBreakCount());
+        }
+    }
+
+    @Test
+    public void stalledClientReleasedTest() throws IOException, InterruptedException {
+        server.stop();
+        server = new TimerHttpServer(timer, 0, runtime, 200);
+        server.start();
+        try (Socket stalled = new Socket()) {
+            stalled.setReceiveBufferSize(4096);
+            stalled.connect(new InetSocketAddress("127.0.0.1", server.getPort()));
+            stalled.setSoTimeout(5000);
+            stalled.getOutputStream().write(("GET /events HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            BufferedReader stalledStream = new BufferedReader(
+                    new InputStreamReader(stalled.getInputStream(), StandardCharsets.UTF_8));
+            while (!"event: state".equals(stalledStream.readLine())) {
+                // Skip the response headers
+            }
+
+            // The client stops reading while hours of events fill the socket
+            // buffers, however large the kernel grows them
+            timer.startTimer();
+            long deadline = System.nanoTime() + 10 * SECOND * 1_000_000;
+            while (server.getEventClientCount() > 0 && System.nanoTime() < deadline) {
+                clock.advance(60 * MINUTE);
+                Thread.sleep(50);
+            }
+            Assertions.assertEquals(0, server.getEventClientCount());
+            Assertions.assertFalse(timer.getPublisher().hasSubscribers());
+
+            // The connection was aborted, reading ends instead of timing out
+            try {
+                while (stalledStream.readLine() != null) {
+                    // Drop what was delivered before the abort
+                }
+            } catch (SocketException e) {
+                // Reset by the server
+            }
+        }
+        // No thread was left blocked on the client
+        Assertions.assertEquals(1, countThreads("pomodoro-http"));
+    }
+
+    private static long countThreads(String name) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith(name))
+                .count();
+    }
+
+    private HttpURLConnection open(String path, String method) throws IOException {
+        URL url = new URL("http", "127.0.0.1", server.getPort(), path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(5000);
+        connection.setReadTimeout(5000);
+        return connection;
+    }
+
+    private String rawRequest(String request) throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", server.getPort())) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+            return read(socket.getInputStream());
+        }
+    }
+
+    private String read(InputStream input) throws IOException {
+        try (input) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.monitoring.TimerMonitor;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+
+public class TimerMonitorTest {
+    private VirtualClock clock;
+    private PomodoroTimer timer;
+    private UserSettings settings;
+    private TimerMonitor monitor;
+
+    @BeforeEach
+    public void setupTimer() throws Exception {
+        clock = new VirtualClock();
+        timer = new PomodoroTimer(TimingWheel.manual(clock));
+        settings = new UserSettings(new MemorySettingsStore());
+        timer.setSettingsReference(settings);
+        monitor = new TimerMonitor(timer);
+        monitor.register();
+    }
+
+    @AfterEach
+    public void unregisterMonitor() throws Exception {
+        monitor.unregister();
+    }
+
+    @Test
+    public void mbeanAttributesTest() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(TimerMonitor.OBJECT_NAME);
+        Assertions.assertEquals(-1L, server.getAttribute(name, "LastTransitionLateness"));
+
+        timer.startTimer();
+        clock.advance(25 * MINUTE + 2 * MINUTE);
+
+        Assertions.assertEquals("BREAK", server.getAttribute(name, "Mode"));
+        Assertions.assertEquals(true, server.getAttribute(name, "TimerRunning"));
+        Assertions.assertEquals(3 * MINUTE, server.getAttribute(name, "RemainingTime"));
+        Assertions.assertEquals(1, server.getAttribute(name, "BreakCount"));
+        Assertions.assertEquals(1L, server.getAttribute(name, "TransitionCount"));
+        // The virtual clock runs every deadline exactly on time
+        Assertions.assertEquals(0L, server.getAttribute(name, "LastTransitionLateness"));
+
+        // No alarm listens to this timer, the alarm's own test records through the same metrics
+        Assertions.assertEquals(0L, server.getAttribute(name, "AlarmCount"));
+        Assertions.assertEquals(-1L, server.getAttribute(name, "LastAlarmLatency"));
+        timer.getMetrics().recordAlarm(12);
+        Assertions.assertEquals(1L, server.getAttribute(name, "AlarmCount"));
+        Assertions.assertEquals(12L, server.getAttribute(name, "MaxAlarmLatency"));
+    }
+
+    @Test
+    public void flightRecorderEventsTest() throws Exception {
+        Path dump = Files.createTempFile("pomodoro", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("ancientmeme.pomodoro.TimerTransition");
+            recording.enable("ancientmeme.pomodoro.TimerControl");
+            recording.enable("ancientmeme.pomodoro.SettingsWrite");
+            recording.start();
+
+            timer.startTimer();
+            clock.advance(25 * MINUTE);
+            timer.pauseTimer();
+            settings.setBreakLength(10, 0);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Files.delete(dump);
+        List<String> actions = events.stream()
+                .filter(e -> e.getEventType().getName().equals("ancientmeme.pomodoro.TimerControl"))
+                .map(e -> e.getString("action"))
+                .collect(Collectors.toList());
+        Assertions.assertEquals(List.of("STARTED", "PAUSED"), actions);
+
+        RecordedEvent transition = events.stream()
+                .filter(e -> e.getEventType().getName().equals("ancientmeme.pomodoro.TimerTransition"))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals("SESSION_COMPLETED", transition.getString("completed"));
+        Assertions.assertEquals("BREAK", transition.getString("nextMode"));
+        Assertions.assertEquals(25 * MINUTE, transition.getLong("plannedTime"));
+        Assertions.assertEquals(25 * MINUTE, transition.getLong("actualTime"));
+
+        Assertions.assertTrue(events.stream().anyMatch(e ->
+                e.getEventType().getName().equals("ancientmeme.pomodoro.SettingsWrite")
+                        && e.getString("key").equals("BREAK_LENGTH")));
+    }
+}
@@ -0,0 +1,161 @@
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerSnapshot;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import ancientmeme.pomodoro.util.TimerEventType;
+import ancientmeme.pomodoro.util.TimerMode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+import static ancientmeme.pomodoro.PomodoroTimer.SECOND;
+
+public class TimerPublisherTest {
+    private VirtualClock clock;
+    private TimingWheel wheel;
+    private PomodoroTimer timer;
+
+    @BeforeEach
+    public void setupTimer() {
+        clock = new VirtualClock();
+        wheel = TimingWheel.manual(clock);
+        timer = new PomodoroTimer(wheel);
+        timer.setSettingsReference(new UserSettings(new MemorySettingsStore()));
+    }
+
+    @Test
+    public void currentStateOnSubscribeTest() {
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        timer.getPublisher().subscribe(subscriber);
+
+        TimerSnapshot first = subscriber.snapshots.get(0);
+        Assertions.assertNull(first.getCause());
+        Assertions.assertEquals(TimerMode.SESSION, first.getMode());
+        Assertions.assertEquals(25 * MINUTE, first.getRemainingTime());
+        Assertions.assertFalse(first.isTimerRunning());
+    }
+
+    @Test
+    public void secondTicksTest() {
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        timer.getPublisher().subscribe(subscriber);
+        timer.startTimer();
+        clock.advance(3 * SECOND + 500);
+
+        Assertions.assertEquals(5, subscriber.snapshots.size());
+        Assertions.assertEquals(TimerEventType.STARTED, subscriber.snapshots.get(1).getCause());
+        for (int i = 2; i < 5; ++i) {
+            TimerSnapshot tick = subscriber.snapshots.get(i);
+            Assertions.assertEquals(TimerEventType.TICK, tick.getCause());
+            Assertions.assertEquals(25 * 60 - (i - 1), tick.getRemainingSeconds());
+        }
+    }
+
+    @Test
+    public void transitionTest() {
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        timer.getPublisher().subscribe(subscriber);
+        timer.startTimer();
+        clock.advance(25 * MINUTE);
+
+        TimerSnapshot last = subscriber.snapshots.get(subscriber.snapshots.size() - 1);
+        Assertions.assertEquals(TimerEventType.SESSION_COMPLETED, last.getCause());
+        Assertions.assertEquals(TimerMode.BREAK, last.getMode());
+        Assertions.assertEquals(1, last.getBreakCount());
+        Assertions.assertEquals(5 * MINUTE, last.getRemainingTime());
+        // One tick per second before the deadline, besides the start and the completion
+        Assertions.assertEquals(1 + 1 + (25 * 60 - 1) + 1, subscriber.snapshots.size());
+    }
+
+    @Test
+    public void conflationTest() {
+        CollectingSubscriber subscriber = new CollectingSubscriber(1);
+        timer.getPublisher().subscribe(subscriber);
+        timer.startTimer();
+        clock.advance(5 * SECOND);
+        timer.pauseTimer();
+        Assertions.assertEquals(1, subscriber.snapshots.size());
+
+        // Only the latest snapshot waited for the slow subscriber
+        subscriber.subscription.request(1);
+        Assertions.assertEquals(2, subscriber.snapshots.size());
+        Assertions.assertEquals(TimerEventType.PAUSED, subscriber.snapshots.get(1).getCause());
+        Assertions.assertEquals(25 * 60 - 5, subscriber.snapshots.get(1).getRemainingSeconds());
+
+        subscriber.subscription.request(1);
+        Assertions.assertEquals(2, subscriber.snapshots.size());
+    }
+
+    @Test
+    public void ticksOnlyWhileSubscribedTest() {
+        timer.startTimer();
+        Assertions.assertEquals(1, wheel.getPendingCount());
+
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        timer.getPublisher().subscribe(subscriber);
+        Assertions.assertEquals(2, wheel.getPendingCount());
+
+        subscriber.subscription.cancel();
+        Assertions.assertEquals(1, wheel.getPendingCount());
+        Assertions.assertFalse(timer.getPublisher().hasSubscribers());
+    }
+
+    @Test
+    public void noWakeupsWhileIdleTest() {
+        CollectingSubscriber subscriber = new CollectingSubscriber(Long.MAX_VALUE);
+        timer.getPublisher().subscribe(subscriber);
+        timer.startTimer();
+        clock.advance(MINUTE);
+        long runningWakeups = wheel.getWakeupCount();
+        Assertions.assertTrue(runningWakeups >= 60, "Woke up " + runningWakeups + " times");
+
+        // Nothing is armed while paused
+        timer.pauseTimer();
+        clock.advance(2 * 60 * MINUTE);
+        Assertions.assertEquals(runningWakeups, wheel.getWakeupCount());
+        Assertions.assertEquals(0, wheel.getWakeupsPerHour());
+
+        // Running without anyone watching only wakes up to cascade the deadline
+        timer.resumeTimer();
+        subscriber.subscription.cancel();
+        clock.advance(20 * MINUTE);
+        Assertions.assertTrue(wheel.getWakeupsPerHour() < 10, "Woke up " + wheel.getWakeupsPerHour() + " times");
+    }
+
+    private static class CollectingSubscriber implements Flow.Subscriber<TimerSnapshot> {
+        private final long initialRequest;
+        private final List<TimerSnapshot> snapshots = new ArrayList<>();
+        private Flow.Subscription subscription;
+
+        CollectingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscriptionRef) {
+            subscription = subscriptionRef;
+            subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(TimerSnapshot snapshot) {
+            snapshots.add(snapshot);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            Assertions.fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
@@ -0,0 +1,216 @@
+import ancientmeme.pomodoro.PomodoroRuntime;
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerEvent;
+import ancientmeme.pomodoro.history.TimerStateFile;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import ancientmeme.pomodoro.util.TimerEventType;
+import ancientmeme.pomodoro.util.TimerMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+import static ancientmeme.pomodoro.PomodoroTimer.SECOND;
+
+public class TimerStateFileTest {
+    @TempDir
+    Path tempDir;
+    private Path file;
+    private AtomicLong wallClock;
+    private VirtualClock clock;
+    private PomodoroRuntime runtime;
+
+    @BeforeEach
+    public void setupFile() {
+        file = tempDir.resolve("timer.state");
+        // Far from the timer's clock, the two never mix
+        wallClock = new AtomicLong(1_700_000_000_000L);
+        clock = new VirtualClock();
+        runtime = new PomodoroRuntime(TimingWheel.manual(clock));
+    }
+
+    @AfterEach
+    public void shutdownRuntime() {
+        runtime.shutdown(1000);
+    }
+
+    @Test
+    public void restoreRunningTest() throws IOException {
+        PomodoroTimer timer = newTimer();
+        try (TimerStateFile stateFile = new TimerStateFile(file, timer, wallClock::get, runtime)) {
+            timer.addListener(stateFile);
+            timer.startTimer();
+            clock.advance(10 * MINUTE);
+        }
+
+        // The application was away for two minutes, in a new process
+        wallClock.addAndGet(12 * MINUTE);
+        PomodoroTimer restored = restart();
+        Assertions.assertTrue(restored.isTimerRunning());
+        Assertions.assertFalse(restored.isPause());
+        Assertions.assertEquals(TimerMode.SESSION, restored.getTimerMode());
+        Assertions.assertEquals(13 * MINUTE, restored.getRemainingTime());
+
+        clock.advance(13 * MINUTE);
+        Assertions.assertEquals(TimerMode.BREAK, restored.getTimerMode());
+        Assertions.assertEquals(1, restored.getBreakCount());
+    }
+
+    @Test
+    public void phaseEndedWhileAwayTest() throws IOException {
+        PomodoroTimer timer = newTimer();
+        try (TimerStateFile stateFile = new TimerStateFile(file, timer, wallClock::get, runtime)) {
+            timer.addListener(stateFile);
+            timer.startTimer();
+            clock.advance(20 * MINUTE);
+        }
+
+        // The session and the break after it ended while the application
+        // was closed, the next session is 20 minutes in
+        wallClock.addAndGet(50 * MINUTE);
+        PomodoroTimer restored = newTimer();
+        List<TimerEvent> events = new ArrayList<>();
+        restored.addListener(events::add);
+        try (TimerStateFile stateFile = new TimerStateFile(file, restored, wallClock::get, runtime)) {
+            restored.addListener(stateFile);
+            Assertions.assertTrue(stateFile.restore());
+            clock.advance(0);
+        }
+        // Nobody saw those phases end, the listeners are not told
+        Assertions.assertTrue(events.isEmpty());
+        Assertions.assertEquals(TimerMode.SESSION, restored.getTimerMode());
+        Assertions.assertEquals(1, restored.getBreakCount());
+        Assertions.assertEquals(5 * MINUTE, restored.getRemainingTime());
+
+        // Restoring the same file again lands on the same phase
+        PomodoroTimer again = restart();
+        Assertions.assertEquals(TimerMode.SESSION, again.getTimerMode());
+        Assertions.assertEquals(1, again.getBreakCount());
+        Assertions.assertEquals(5 * MINUTE, again.getRemainingTime());
+
+        // The rest of the plan runs from there
+        clock.advance(5 * MINUTE);
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(TimerEventType.SESSION_COMPLETED, events.get(0).getType());
+        Assertions.assertEquals(TimerMode.BREAK, restored.getTimerMode());
+        Assertions.assertEquals(2, restored.getBreakCount());
+    }
+
+    @Test
+    public void severalCyclesWhileAwayTest() throws IOException {
+        UserSettings settings = new UserSettings(new MemorySettingsStore());
+        settings.setIsLongBreakEnabled(true);
+        PomodoroTimer timer = newTimer(settings);
+        try (TimerStateFile stateFile = new TimerStateFile(file, timer, wallClock::get, runtime)) {
+            timer.addListener(stateFile);
+            timer.startTimer();
+            clock.advance(10 * MINUTE);
+        }
+
+        // A cycle is 4 sessions, 3 breaks and a long break: 125 minutes.
+        // Two cycles and 105 minutes after the start, the timer is 15
+        // minutes into the session before the third long break.
+        wallClock.addAndGet(2 * 125 * MINUTE + 105 * MINUTE);
+        PomodoroTimer restored = newTimer(settings);
+        try (TimerStateFile stateFile = new TimerStateFile(file, restored, wallClock::get, runtime)) {
+            Assertions.assertTrue(stateFile.restore());
+        }
+        Assertions.assertTrue(restored.isTimerRunning());
+        Assertions.assertEquals(TimerMode.SESSION, restored.getTimerMode());
+        Assertions.assertEquals(2 * 4 + 3, restored.getBreakCount());
+        Assertions.assertEquals(10 * MINUTE, restored.getRemainingTime());
+
+        clock.advance(10 * MINUTE);
+        Assertions.assertEquals(TimerMode.LONG_BREAK, restored.getTimerMode());
+        Assertions.assertEquals(10 * MINUTE, restored.getRemainingTime());
+    }
+
+    @Test
+    public void restorePausedTest() throws IOException {
+        PomodoroTimer timer = newTimer();
+        try (TimerStateFile stateFile = new TimerStateFile(file, timer, wallClock::get, runtime)) {
+            timer.addListener(stateFile);
+            timer.startTimer();
+            clock.advance(25 * MINUTE + 30 * SECOND);
+            timer.pauseTimer();
+        }
+
+        // Time stands still while paused, however long the application was away
+        wallClock.addAndGet(3 * 60 * MINUTE);
+        PomodoroTimer restored = restart();
+        Assertions.assertTrue(restored.isPause());
+        Assertions.assertEquals(TimerMode.BREAK, restored.getTimerMode());
+        Assertions.assertEquals(4 * MINUTE + 30 * SECOND, restored.getRemainingTime());
+
+        restored.resumeTimer();
+        clock.advance(4 * MINUTE + 30 * SECOND);
+        Assertions.assertEquals(TimerMode.SESSION, restored.getTimerMode());
+    }
+
+    @Test
+    public void tornWriteTest() throws IOException {
+        PomodoroTimer timer = newTimer();
+        try (TimerStateFile stateFile = new TimerStateFile(file, timer, wallClock::get, runtime)) {
+            timer.addListener(stateFile);
+            timer.startTimer();
+        }
+        // The pause goes to the other slot
+        try (TimerStateFile stateFile = new TimerStateFile(file, timer, wallClock::get, runtime)) {
+            timer.addListener(stateFile);
+            clock.advance(5 * MINUTE);
+            timer.pauseTimer();
+        }
+        Assertions.assertTrue(restart().isPause());
+
+        // A crash in the middle of writing the pause leaves the start intact
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), 64 + 24);
+        }
+        PomodoroTimer restored = restart();
+        Assertions.assertTrue(restored.isTimerRunning());
+        Assertions.assertFalse(restored.isPause());
+        Assertions.assertEquals(25 * MINUTE, restored.getRemainingTime());
+    }
+
+    @Test
+    public void missingFileTest() throws IOException {
+        PomodoroTimer timer = newTimer();
+        try (TimerStateFile stateFile = new TimerStateFile(file, timer, wallClock::get, runtime)) {
+            Assertions.assertFalse(stateFile.restore());
+        }
+        Assertions.assertFalse(timer.isTimerRunning());
+        Assertions.assertEquals(25 * MINUTE, timer.getRemainingTime());
+    }
+
+    private PomodoroTimer newTimer() {
+        return newTimer(new UserSettings(new MemorySettingsStore()));
+    }
+
+    private PomodoroTimer newTimer(UserSettings settings) {
+        PomodoroTimer timer = new PomodoroTimer(runtime.getTimingWheel());
+        timer.setSettingsReference(settings);
+        return timer;
+    }
+
+    private PomodoroTimer restart() throws IOException {
+        PomodoroTimer timer = newTimer();
+        try (TimerStateFile stateFile = new TimerStateFile(file, timer, wallClock::get, runtime)) {
+            Assertions.assertTrue(stateFile.restore());
+        }
+        return timer;
+    }
+}
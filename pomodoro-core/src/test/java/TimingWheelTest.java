@@ -0,0 +1,107 @@
+import ancientmeme.pomodoro.timing.Timeout;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimingWheelTest {
+    private final int _timerCount = 100_000;
+
+    private TimingWheel wheel;
+
+    @BeforeEach
+    public void setupTest() {
+        wheel = new TimingWheel(1);
+    }
+
+    @AfterEach
+    public void teardownTest() {
+        wheel.shutdown();
+    }
+
+    @Test
+    public void runAfterDelayTest() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        // Measured on the wheel's own clock, which counts whole milliseconds
+        long start = wheel.getClock().millis();
+        wheel.schedule(latch::countDown, 200);
+
+        Assertions.assertTrue(latch.await(2, TimeUnit.SECONDS), "Task never ran");
+        long elapsed = wheel.getClock().millis() - start;
+        Assertions.assertTrue(elapsed >= 200, "Task ran before its deadline");
+    }
+
+    @Test
+    public void cancelTest() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        Timeout timeout = wheel.schedule(runs::incrementAndGet, 100);
+
+        Assertions.assertTrue(timeout.cancel());
+        Assertions.assertFalse(timeout.cancel());
+        Assertions.assertEquals(0, wheel.getPendingCount());
+        Thread.sleep(300);
+        Assertions.assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void cascadeTest() throws InterruptedException {
+        // 5 seconds is several levels above the 64ms covered by level 0
+        CountDownLatch latch = new CountDownLatch(2);
+        wheel.schedule(latch::countDown, 70);
+        wheel.schedule(latch::countDown, 5000);
+
+        Assertions.assertFalse(latch.await(4500, TimeUnit.MILLISECONDS));
+        Assertions.assertEquals(1, latch.getCount());
+        Assertions.assertTrue(latch.await(2, TimeUnit.SECONDS), "Cascaded task never ran");
+    }
+
+    @Test
+    public void virtualClockTest() {
+        VirtualClock clock = new VirtualClock();
+        TimingWheel manualWheel = TimingWheel.manual(clock);
+        List<Long> firedAt = new ArrayList<>();
+        manualWheel.schedule(() -> firedAt.add(clock.millis()), 3 * 60 * 60 * 1000);
+        manualWheel.schedule(() -> firedAt.add(clock.millis()), 50);
+        manualWheel.schedule(() -> firedAt.add(clock.millis()), 4000);
+
+        clock.advance(24 * 60 * 60 * 1000);
+        Assertions.assertEquals(List.of(50L, 4000L, 3 * 60 * 60 * 1000L), firedAt);
+        Assertions.assertEquals(0, manualWheel.getPendingCount());
+    }
+
+    @Test
+    public void hundredThousandTimersTest() {
+        // On a virtual clock, a loaded CI machine cannot make the timers late
+        VirtualClock clock = new VirtualClock();
+        TimingWheel manualWheel = TimingWheel.manual(clock);
+        List<Long> deadlines = new ArrayList<>(_timerCount);
+        AtomicLong maxLateness = new AtomicLong(Long.MIN_VALUE);
+        Random random = new Random(42);
+
+        for (int i = 0; i < _timerCount; ++i) {
+            long deadline = 200 + random.nextInt(1000);
+            manualWheel.schedule(() -> {
+                maxLateness.accumulateAndGet(clock.millis() - deadline, Math::max);
+                deadlines.add(deadline);
+            }, deadline);
+        }
+        Assertions.assertEquals(_timerCount, manualWheel.getPendingCount());
+
+        clock.advance(199);
+        Assertions.assertTrue(deadlines.isEmpty(), "A timer fired before its deadline");
+        clock.advance(1000);
+        Assertions.assertEquals(_timerCount, deadlines.size(), "Not every timer fired");
+        Assertions.assertEquals(0, manualWheel.getPendingCount());
+        Assertions.assertEquals(0, maxLateness.get(), "A timer fired after its deadline");
+        for (int i = 1; i < deadlines.size(); ++i) {
+            Assertions.assertTrue(deadlines.get(i - 1) <= deadlines.get(i), "Timers fired out of order");
+        }
+    }
+}
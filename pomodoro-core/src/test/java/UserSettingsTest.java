@@ -0,0 +1,157 @@
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.SettingsChange;
+import ancientmeme.pomodoro.settings.SettingsKey;
+import ancientmeme.pomodoro.settings.SettingsListener;
+import ancientmeme.pomodoro.settings.UserSettings;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+import static ancientmeme.pomodoro.PomodoroTimer.SECOND;
+
+public class UserSettingsTest {
+    private CountingStore store;
+    private UserSettings settings;
+
+    @BeforeEach
+    public void setup() {
+        store = new CountingStore();
+        settings = new UserSettings(store);
+    }
+
+    @Test
+    public void defaultSettingsTest() {
+        Assertions.assertEquals(25 * MINUTE, settings.getSessionLength());
+        Assertions.assertEquals(5 * MINUTE, settings.getBreakLength());
+        Assertions.assertFalse(settings.isLongBreakEnabled());
+        Assertions.assertEquals(4, settings.getSessionsPerLongBreak());
+        Assertions.assertEquals(16, settings.getDailySessions());
+    }
+
+    @Test
+    public void setPlanShapeTest() {
+        settings.setSessionsPerLongBreak(3);
+        settings.setDailySessions(12);
+        UserSettings loadedSettings = new UserSettings(store);
+        Assertions.assertEquals(3, loadedSettings.getSessionsPerLongBreak());
+        Assertions.assertEquals(12, loadedSettings.getDailySessions());
+    }
+
+    @Test
+    public void setSessionLengthTest() {
+        settings.setSessionLength(4, 0);
+        UserSettings loadedSettings = new UserSettings(store);
+        Assertions.assertEquals(4 * MINUTE, loadedSettings.getSessionLength());
+    }
+
+    @Test
+    public void setBreakLengthTest() {
+        settings.setBreakLength(2, 5);
+        UserSettings loadedSettings = new UserSettings(store);
+        Assertions.assertEquals(2 * MINUTE + 5 * SECOND, loadedSettings.getBreakLength());
+    }
+
+    @Test
+    public void setIsLongBreakEnabledTest() {
+        settings.setIsLongBreakEnabled(true);
+        UserSettings loadedSettings = new UserSettings(store);
+        Assertions.assertTrue(loadedSettings.isLongBreakEnabled());
+    }
+
+    @Test
+    public void setIsLightModeEnabledTest() {
+        settings.setIsLightModeEnabled(true);
+        UserSettings loadedSettings = new UserSettings(store);
+        Assertions.assertTrue(loadedSettings.isLightModeEnabled());
+    }
+
+    @Test
+    public void windowPositionWriteBehindTest() {
+        settings.setWindowX(10);
+        settings.setWindowX(42);
+        settings.setWindowY(24);
+        Assertions.assertEquals(42, settings.getWindowX());
+        Assertions.assertEquals(24, settings.getWindowY());
+
+        settings.flush();
+        UserSettings loadedSettings = new UserSettings(store);
+        Assertions.assertEquals(42, loadedSettings.getWindowX());
+        Assertions.assertEquals(24, loadedSettings.getWindowY());
+    }
+
+    @Test
+    public void resetDefaultSettingsTest() {
+        settings.resetDefaultSettings();
+        UserSettings loadedSettings = new UserSettings(store);
+        Assertions.assertEquals(25 * MINUTE, loadedSettings.getSessionLength());
+        Assertions.assertEquals(5 * MINUTE, loadedSettings.getBreakLength());
+        Assertions.assertFalse(loadedSettings.isLongBreakEnabled());
+        Assertions.assertFalse(loadedSettings.isLightModeEnabled());
+    }
+
+    @Test
+    public void transactionTest() {
+        List<SettingsChange> changes = new ArrayList<>();
+        settings.addListener(changes::add);
+
+        SettingsChange change = settings.edit()
+                .setSessionLength(25, 0)
+                .setBreakLength(10, 0)
+                .setIsLightModeEnabled(true)
+                .commit();
+
+        // The session length was already 25 minutes
+        Assertions.assertEquals(EnumSet.of(SettingsKey.BREAK_LENGTH, SettingsKey.LIGHT_MODE),
+                                change.getChangedKeys());
+        Assertions.assertEquals(List.of(change), changes);
+        Assertions.assertEquals(1, store.flushCount);
+
+        UserSettings loadedSettings = new UserSettings(store);
+        Assertions.assertEquals(10 * MINUTE, loadedSettings.getBreakLength());
+        Assertions.assertTrue(loadedSettings.isLightModeEnabled());
+    }
+
+    @Test
+    public void unchangedTransactionTest() {
+        List<SettingsChange> changes = new ArrayList<>();
+        settings.addListener(changes::add);
+
+        SettingsChange change = settings.edit().setIsAlwaysOnTop(false).commit();
+        Assertions.assertTrue(change.isEmpty());
+        Assertions.assertTrue(changes.isEmpty());
+        Assertions.assertEquals(0, store.flushCount);
+    }
+
+    @Test
+    public void removeListenerDuringNotificationTest() {
+        List<SettingsChange> changes = new ArrayList<>();
+        settings.addListener(new SettingsListener() {
+            @Override
+            public void settingsChanged(SettingsChange change) {
+                settings.removeListener(this);
+            }
+        });
+        settings.addListener(changes::add);
+
+        settings.edit().setIsAlwaysOnTop(true).commit();
+        settings.edit().setIsAlwaysOnTop(false).commit();
+        Assertions.assertEquals(2, changes.size());
+    }
+
+    /**
+     * In-memory store that counts how often it is flushed
+     */
+    private static class CountingStore extends MemorySettingsStore {
+        private int flushCount;
+
+        @Override
+        public void flush() {
+            flushCount += 1;
+        }
+    }
+}
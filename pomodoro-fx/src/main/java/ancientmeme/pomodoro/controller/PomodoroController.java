@@ -0,0 +1,287 @@
+package ancientmeme.pomodoro.controller;
+
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerSnapshot;
+import ancientmeme.pomodoro.fx.util.ClockDisplay;
+import ancientmeme.pomodoro.fx.util.LazyStage;
+import ancientmeme.pomodoro.monitoring.DisplayRefreshEvent;
+import ancientmeme.pomodoro.settings.SettingsChange;
+import ancientmeme.pomodoro.settings.SettingsKey;
+import ancientmeme.pomodoro.settings.SettingsListener;
+import ancientmeme.pomodoro.settings.UserSettings;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Button;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.text.Text;
+import javafx.stage.Stage;
+
+import java.net.URL;
+import java.util.ResourceBundle;
+import java.util.concurrent.Flow;
+
+/**
+ * Controller for the Pomodoro Interface, interacts with a
+ * PomodoroTimer and updates the interface accordingly.
+ * The controller updates the current timer by receiving data from
+ * PomodoroTimer and pass any user actions to it.
+ */
+public class PomodoroController implements Initializable, SettingsListener {
+    // Set on the start button while it pauses the timer, the theme shows the pause icon
+    public static final PseudoClass CAN_PAUSE = PseudoClass.getPseudoClass("can_pause");
+    // Receives the timer's snapshots one at a time, null while the window is hidden
+    private Flow.Subscription displaySubscription;
+    private PomodoroTimer timer;
+    private UserSettings userSettings;
+    private Stage timerStage;
+    private LazyStage<SettingsController> settingsWindow;
+    private ClockDisplay clockDisplay;
+    // Offset for dragging the window
+    private double xOffset;
+    private double yOffset;
+    @FXML
+    private Text modeDisplay;
+    @FXML
+    private Text timerDisplay;
+    @FXML
+    private Button startButton;
+
+    /**
+     * Initializes the controller
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        clockDisplay = new ClockDisplay(modeDisplay, timerDisplay);
+        startButton.pseudoClassStateChanged(CAN_PAUSE, false);
+    }
+
+    @Override
+    public void settingsChanged(SettingsChange change) {
+        if (change.contains(SettingsKey.ON_TOP)) {
+            setAlwaysOnTop();
+        }
+        if (change.containsAny(SettingsKey.WINDOW_X, SettingsKey.WINDOW_Y)) {
+            setDefaultPosition();
+        }
+        // A stopped timer shows the length of the next session
+        if (timer != null && change.containsAny(SettingsKey.SESSION_LENGTH, SettingsKey.BREAK_LENGTH)) {
+            updateDisplay(timer.getSnapshot());
+        }
+    }
+
+    /**
+     * Inject a reference to a PomodoroTimer, and perform initialization
+     * that requires the timer
+     * @param timerRef reference to a PomodoroTimer
+     */
+    public void setTimerReference(PomodoroTimer timerRef) {
+        timer = timerRef;
+        refreshDisplay();
+    }
+
+    /**
+     * Get reference to the settings, then load all related settings
+     * @param settings the saved user settings
+     */
+    public void setSettingsReference(UserSettings settings) {
+        userSettings = settings;
+    }
+
+    /**
+     * Inject a reference to the settings window, which is only
+     * built when it is first opened
+     * @param settingsWindowRef reference to the settings window
+     */
+    public void setSettingsWindow(LazyStage<SettingsController> settingsWindowRef) {
+        settingsWindow = settingsWindowRef;
+    }
+
+    /**
+     * Inject a reference to the timer window (self). The display only
+     * follows the timer while the window is shown and not minimized,
+     * without a subscriber the timer arms no second ticks at all.
+     * @param timerStageRef reference to the timer window
+     */
+    public void setTimerStage(Stage timerStageRef) {
+        timerStage = timerStageRef;
+        timerStage.showingProperty().addListener((observable, wasShowing, isShowing) -> {
+            updateDisplaySubscription();
+        });
+        timerStage.iconifiedProperty().addListener((observable, wasIconified, isIconified) -> {
+            updateDisplaySubscription();
+        });
+    }
+
+    /**
+     * Application should call this method to stop
+     * refreshing the display
+     */
+    public void shutdownController() {
+        unsubscribeDisplay();
+    }
+
+    /**
+     * Follow the timer while the window can be seen, stop following it
+     * while the window is hidden or minimized
+     */
+    private void updateDisplaySubscription() {
+        boolean isVisible = timerStage.isShowing() && !timerStage.isIconified();
+        if (isVisible && displaySubscription == null) {
+            refreshDisplay();
+        } else if (!isVisible) {
+            unsubscribeDisplay();
+        }
+    }
+
+    private void unsubscribeDisplay() {
+        if (displaySubscription != null) {
+            displaySubscription.cancel();
+            displaySubscription = null;
+        }
+    }
+
+    /**
+     * Subscribe the display to the timer's snapshots. Each snapshot is
+     * shown on the FX Application Thread before the next one is
+     * requested, so a busy FX thread only ever gets the latest state.
+     * A new subscription starts with the current state.
+     */
+    private void refreshDisplay() {
+        clockDisplay.clear();
+        timer.getPublisher().subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscriptionRef) {
+                subscription = subscriptionRef;
+                displaySubscription = subscriptionRef;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(TimerSnapshot snapshot) {
+                Platform.runLater(() -> {
+                    // A snapshot still queued from a cancelled subscription is dropped
+                    if (subscription != displaySubscription) {
+                        return;
+                    }
+                    updateDisplay(snapshot);
+                    subscription.request(1);
+                });
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                System.err.format("Display stopped updating: %s%n", throwable);
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    /**
+     * Push the remaining time and mode to the display, only the texts
+     * whose value changed since the last snapshot are touched
+     */
+    private void updateDisplay(TimerSnapshot snapshot) {
+        DisplayRefreshEvent event = new DisplayRefreshEvent();
+        event.begin();
+        int textsChanged = clockDisplay.show(snapshot);
+
+        // The timer may also be controlled from outside the window
+        startButton.pseudoClassStateChanged(CAN_PAUSE, snapshot.isTimerRunning() && !snapshot.isPause());
+
+        if (event.shouldCommit()) {
+            String cause = (snapshot.getCause() == null) ? null : snapshot.getCause().name();
+            event.set(cause, snapshot.getRemainingSeconds(), textsChanged);
+            event.commit();
+        }
+    }
+
+    /**
+     * Start the timer if user pressed start, if the timer
+     * has started, pause instead.
+     */
+    @FXML
+    private void handleStart() {
+        // The button follows the snapshot the timer publishes for each action
+        if (!timer.isTimerRunning()) {
+            timer.startTimer();
+            return;
+        }
+
+        // Only available during a session
+        if (timer.isPause()) {
+            timer.resumeTimer();
+        } else {
+            timer.pauseTimer();
+        }
+    }
+
+    /**
+     * Stops the timer if user pressed stop
+     */
+    @FXML
+    private void handleStop() {
+        timer.stopTimer();
+    }
+
+    /**
+     * Opens up the settings menu
+     */
+    @FXML
+    private void handleSettings() {
+        Stage settingsStage = settingsWindow.getStage();
+        settingsStage.setX(timerStage.getX());
+        settingsStage.setY(timerStage.getY());
+        settingsStage.show();
+    }
+
+    /**
+     * Closes the application
+     */
+    @FXML
+    private void handleClose() {
+        timerStage.close();
+    }
+
+    /**
+     * Records where the mouse clicked
+     * @param event the mouse event
+     */
+    @FXML
+    private void handleMousePress(MouseEvent event) {
+        xOffset = event.getSceneX();
+        yOffset = event.getSceneY();
+    }
+
+    /**
+     * Move the stage according to the mouse drag
+     * @param event the mouse event
+     */
+    @FXML
+    private void handleMouseDrag(MouseEvent event) {
+        double xPos = event.getScreenX() - xOffset;
+        double yPos = event.getScreenY() - yOffset;
+        timerStage.setX(xPos);
+        timerStage.setY(yPos);
+        userSettings.setWindowX(xPos);
+        userSettings.setWindowY(yPos);
+    }
+
+    /**
+     * Update the OnTop attribute of the window
+     */
+    private void setAlwaysOnTop() {
+        timerStage.setAlwaysOnTop(userSettings.isAlwaysOnTop());
+    }
+
+    private void setDefaultPosition() {
+        timerStage.setX(userSettings.getWindowX());
+        timerStage.setY(userSettings.getWindowY());
+    }
+}
\ No newline at end of file
@@ -1,14 +1,14 @@
 package ancientmeme.pomodoro.controller;
 
 import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.fx.util.LazyStage;
+import ancientmeme.pomodoro.settings.SettingsChange;
+import ancientmeme.pomodoro.settings.SettingsKey;
 import ancientmeme.pomodoro.settings.SettingsListener;
-import ancientmeme.pomodoro.settings.SettingsStringConverter;
+import ancientmeme.pomodoro.fx.util.SettingsStringConverter;
 import ancientmeme.pomodoro.settings.UserSettings;
-import ancientmeme.pomodoro.util.Loader;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.stage.Stage;
 
@@ -18,10 +18,9 @@ import java.util.function.UnaryOperator;
 
 public class SettingsController implements Initializable, SettingsListener {
     private UserSettings settings;
+    private LazyStage<StatisticsController> statisticsWindow;
     private TextFormatter<Long> sessionFormatter;
     private TextFormatter<Long> breakFormatter;
-    private String lightModeCSS;
-    private String darkModeCSS;
 
     @FXML
     private TextField sessionLengthField;
@@ -41,25 +40,26 @@ public class SettingsController implements Initializable, SettingsListener {
     private ToggleButton lightModeButton;
     @FXML
     private ToggleButton onTopButton;
+    @FXML
+    private Button statisticsButton;
 
     @Override
     public void initialize(URL _url, ResourceBundle _rb) {
         setupTextFilter();
-        // Load the css required
-        lightModeCSS = Loader.loadCSS("css/light-mode.css");
-        darkModeCSS = Loader.loadCSS("css/dark-mode.css");
 
         // these symbols cause error for FXMLLoader
         sessionDecreaseButton.setText("<");
         sessionIncreaseButton.setText(">");
         breakDecreaseButton.setText("<");
         breakIncreaseButton.setText(">");
+        statisticsButton.setText(">");
     }
 
     @Override
-    public void settingsChanged() {
-        setAlwaysOnTop();
-        changeStyleMode();
+    public void settingsChanged(SettingsChange change) {
+        if (change.contains(SettingsKey.ON_TOP)) {
+            setAlwaysOnTop();
+        }
     }
 
     /**
@@ -70,6 +70,15 @@ public class SettingsController implements Initializable, SettingsListener {
         loadUserSettings();
     }
 
+    /**
+     * Inject a reference to the statistics window, which is only
+     * built when it is first opened
+     * @param statisticsWindowRef reference to the statistics window
+     */
+    public void setStatisticsWindow(LazyStage<StatisticsController> statisticsWindowRef) {
+        statisticsWindow = statisticsWindowRef;
+    }
+
     /**
      * Load the saved timer settings after getting the reference for the current timer
      */
@@ -103,12 +112,14 @@ public class SettingsController implements Initializable, SettingsListener {
 
     @FXML
     private void handleSaveSettings() {
-        settings.setSessionLength(sessionFormatter.getValue(), 0);
-        settings.setBreakLength(breakFormatter.getValue(), 0);
-        settings.setIsLongBreakEnabled(longBreakButton.isSelected());
-        settings.setIsLightModeEnabled(lightModeButton.isSelected());
-        settings.setIsAlwaysOnTop(onTopButton.isSelected());
-        settings.notifySettingsUpdate();
+        // Listeners are notified of the changed settings on commit
+        settings.edit()
+                .setSessionLength(sessionFormatter.getValue(), 0)
+                .setBreakLength(breakFormatter.getValue(), 0)
+                .setIsLongBreakEnabled(longBreakButton.isSelected())
+                .setIsLightModeEnabled(lightModeButton.isSelected())
+                .setIsAlwaysOnTop(onTopButton.isSelected())
+                .commit();
     }
 
     @FXML
@@ -117,6 +128,15 @@ public class SettingsController implements Initializable, SettingsListener {
         loadUserSettings();
     }
 
+    @FXML
+    private void handleShowStatistics() {
+        Stage settingsStage = (Stage) lightModeButton.getScene().getWindow();
+        Stage statisticsStage = statisticsWindow.getStage();
+        statisticsStage.setX(settingsStage.getX());
+        statisticsStage.setY(settingsStage.getY());
+        statisticsStage.show();
+    }
+
     @FXML
     private void handleCloseSettings() {
         // Reset the interface to the saved settings
@@ -173,17 +193,8 @@ public class SettingsController implements Initializable, SettingsListener {
     private void setAlwaysOnTop() {
         Stage settingsStage = (Stage) lightModeButton.getScene().getWindow();
         settingsStage.setAlwaysOnTop(settings.isAlwaysOnTop());
-    }
-
-    private void changeStyleMode() {
-        Parent settingsParent = lightModeButton.getScene().getRoot();
-
-        if (settings.isLightModeEnabled()) {
-            settingsParent.getStylesheets().remove(darkModeCSS);
-            settingsParent.getStylesheets().add(lightModeCSS);
-        } else {
-            settingsParent.getStylesheets().remove(lightModeCSS);
-            settingsParent.getStylesheets().add(darkModeCSS);
+        if (statisticsWindow.isLoaded()) {
+            statisticsWindow.getStage().setAlwaysOnTop(settings.isAlwaysOnTop());
         }
     }
 }
@@ -0,0 +1,117 @@
+package ancientmeme.pomodoro.controller;
+
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.history.FocusStatistics;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Label;
+import javafx.scene.paint.Color;
+import javafx.stage.Stage;
+
+import java.net.URL;
+import java.time.LocalDate;
+import java.util.ResourceBundle;
+
+/**
+ * Shows the focus statistics and a heatmap of the focus time of the
+ * last year. The heatmap is drawn on a single canvas, one column per
+ * week and one row per weekday, instead of a node per day.
+ */
+public class StatisticsController implements Initializable {
+    private static final int WEEKS = 53;
+    private static final double CELL_SIZE = 4;
+    private static final double CELL_STRIDE = 5;
+    // Focus time needed for each shade of the heatmap
+    private static final long[] LEVEL_THRESHOLDS = {
+            1, 30 * PomodoroTimer.MINUTE, 60 * PomodoroTimer.MINUTE, 120 * PomodoroTimer.MINUTE
+    };
+    private static final Color EMPTY_COLOR = Color.gray(0.5, 0.25);
+    private static final Color[] LEVEL_COLORS = {
+            Color.web("#E38959", 0.3), Color.web("#E38959", 0.55),
+            Color.web("#E38959", 0.8), Color.web("#E38959", 1.0)
+    };
+    private FocusStatistics statistics;
+    // Reused for every redraw, one entry per cell of the heatmap
+    private final long[] heatmapDays = new long[WEEKS * 7];
+
+    @FXML
+    private Label todayLabel;
+    @FXML
+    private Label weekLabel;
+    @FXML
+    private Label monthLabel;
+    @FXML
+    private Label streakLabel;
+    @FXML
+    private Label longestStreakLabel;
+    @FXML
+    private Label completionLabel;
+    @FXML
+    private Canvas heatmapCanvas;
+
+    @Override
+    public void initialize(URL _url, ResourceBundle _rb) {
+    }
+
+    public void setStatisticsReference(FocusStatistics statisticsRef) {
+        statistics = statisticsRef;
+    }
+
+    /**
+     * Redraw the window with the current statistics, should be called
+     * every time the window is shown
+     */
+    public void refreshStatistics() {
+        LocalDate today = LocalDate.now();
+        todayLabel.setText(formatFocus(statistics.getFocusMillis(today)));
+        weekLabel.setText(formatFocus(statistics.getWeekFocusMillis(today)));
+        monthLabel.setText(formatFocus(statistics.getMonthFocusMillis(today)));
+        streakLabel.setText(formatDays(statistics.getCurrentStreak(today)));
+        longestStreakLabel.setText(formatDays(statistics.getLongestStreak()));
+        completionLabel.setText(String.format("%.0f%%", statistics.getCompletionRate() * 100));
+        drawHeatmap(today);
+    }
+
+    @FXML
+    private void handleCloseStatistics() {
+        Stage statisticsStage = (Stage) heatmapCanvas.getScene().getWindow();
+        statisticsStage.hide();
+    }
+
+    /**
+     * Draw the last 53 weeks, the last column ends with the current week
+     */
+    private void drawHeatmap(LocalDate today) {
+        LocalDate firstDay = today.minusDays(today.getDayOfWeek().getValue() - 1).minusWeeks(WEEKS - 1);
+        statistics.copyFocusMillis(firstDay, heatmapDays);
+        int todayIndex = (int) (today.toEpochDay() - firstDay.toEpochDay());
+
+        GraphicsContext graphics = heatmapCanvas.getGraphicsContext2D();
+        graphics.clearRect(0, 0, heatmapCanvas.getWidth(), heatmapCanvas.getHeight());
+        for (int day = 0; day <= todayIndex; ++day) {
+            graphics.setFill(colorOf(heatmapDays[day]));
+            graphics.fillRect((day / 7) * CELL_STRIDE, (day % 7) * CELL_STRIDE, CELL_SIZE, CELL_SIZE);
+        }
+    }
+
+    private static Color colorOf(long focusMillis) {
+        Color color = EMPTY_COLOR;
+        for (int level = 0; level < LEVEL_THRESHOLDS.length; ++level) {
+            if (focusMillis >= LEVEL_THRESHOLDS[level]) {
+                color = LEVEL_COLORS[level];
+            }
+        }
+        return color;
+    }
+
+    private static String formatFocus(long focusMillis) {
+        long minutes = focusMillis / PomodoroTimer.MINUTE;
+        return String.format("%dh %02dm", minutes / 60, minutes % 60);
+    }
+
+    private static String formatDays(int days) {
+        return (days == 1) ? "1 day" : days + " days";
+    }
+}
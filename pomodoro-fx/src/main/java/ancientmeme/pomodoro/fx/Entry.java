@@ -0,0 +1,38 @@
+package ancientmeme.pomodoro.fx;
+
+import ancientmeme.pomodoro.control.CommandChannel;
+import ancientmeme.pomodoro.control.TimerCommand;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Starts the application, or hands the command to the instance that is
+ * already running and exits without loading JavaFX:
+ *
+ *   pomodoro                 opens the clock, or brings the running one to the front
+ *   pomodoro status|start|pause|resume|stop   prints the state of the running timer
+ */
+public class Entry {
+    public static void main(String[] args) {
+        String command = (args.length == 0) ? CommandChannel.SHOW : args[0];
+        if (args.length > 0 && TimerCommand.fromName(command) == null) {
+            System.err.format("Unknown command: %s%n", command);
+            System.exit(2);
+        }
+
+        Path socketFile = CommandChannel.defaultSocketFile();
+        try {
+            System.out.println(CommandChannel.send(socketFile, command));
+            return;
+        } catch (IOException e) {
+            // No instance is running
+        }
+
+        if (args.length > 0) {
+            System.err.println("Pomodoro is not running");
+            System.exit(1);
+        }
+        PomodoroLauncher.main(args);
+    }
+}
@@ -0,0 +1,425 @@
+package ancientmeme.pomodoro.fx;
+
+import ancientmeme.pomodoro.PomodoroRuntime;
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.control.CommandChannel;
+import ancientmeme.pomodoro.controller.PomodoroController;
+import ancientmeme.pomodoro.controller.SettingsController;
+import ancientmeme.pomodoro.controller.StatisticsController;
+import ancientmeme.pomodoro.history.FocusStatistics;
+import ancientmeme.pomodoro.history.SessionJournal;
+import ancientmeme.pomodoro.history.TimerStateFile;
+import ancientmeme.pomodoro.http.TimerHttpServer;
+import ancientmeme.pomodoro.monitoring.ShutdownEvent;
+import ancientmeme.pomodoro.monitoring.TimerMonitor;
+import ancientmeme.pomodoro.fx.util.Alarm;
+import ancientmeme.pomodoro.fx.util.LazyStage;
+import ancientmeme.pomodoro.fx.util.Loader;
+import ancientmeme.pomodoro.fx.util.ThemeManager;
+import ancientmeme.pomodoro.settings.SettingsChange;
+import ancientmeme.pomodoro.settings.UserSettings;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.media.AudioClip;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+import javax.management.JMException;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The starting point of the application, loads all the windows required
+ * and user preferences. Only the clock window is built before the first
+ * frame, the other windows are built when they are first opened and the
+ * alarm sound and stylesheets are loaded on the runtime's I/O executor.
+ * Every thread of the application is a daemon, closing the clock window
+ * drains the pending writes within SHUTDOWN_BUDGET and lets the JVM exit.
+ */
+public class PomodoroLauncher extends Application {
+    // Quit right after the first frame, for training and benchmark runs
+    private static final String EXIT_AFTER_FIRST_FRAME = "pomodoro.exitAfterFirstFrame";
+    // Port of the local HTTP API, the API is off unless it is set
+    private static final String HTTP_PORT = "pomodoro.http.port";
+    // Longest time the pending I/O may take once the application stops
+    private static final long SHUTDOWN_BUDGET = 2 * PomodoroTimer.SECOND;
+    private Stage timerStage;
+    private Scene timerScene;
+    private LazyStage<SettingsController> settingsWindow;
+    private LazyStage<StatisticsController> statisticsWindow;
+    private PomodoroController timerController;
+    private UserSettings userSettings;
+    private ThemeManager themeManager;
+    private PomodoroTimer timer;
+    private FocusStatistics statistics;
+    private Alarm alarm;
+    private CompletableFuture<AudioClip> alarmClip;
+    private SessionJournal journal;
+    private TimerStateFile stateFile;
+    private TimerMonitor timerMonitor;
+    private TimerHttpServer httpServer;
+    private CommandChannel commandChannel;
+    // Runs the timer and every blocking task of the application
+    private PomodoroRuntime runtime;
+    private long firstFrameMillis = -1;
+
+    /**
+     * Load the clock scene and controller from its fxml file,
+     * the other windows are only described here
+     */
+    private void getSceneAndController() {
+        FXMLLoader timerLoader = new FXMLLoader();
+        timerScene = Loader.loadFXMLFile(timerLoader, "clock.fxml", 320, 360);
+        timerController = timerLoader.getController();
+
+        settingsWindow = new LazyStage<>("settings.fxml", 320, 360, this::setupSettingsWindow);
+        statisticsWindow = new LazyStage<>("statistics.fxml", 320, 360, this::setupStatisticsWindow);
+    }
+
+    /**
+     * Inject dependency for the controllers
+     */
+    private void injectDependency() {
+        // inject user settings into timer and settingController
+        userSettings = new UserSettings(Loader.loadSettingsStore());
+        timer = new PomodoroTimer();
+        timer.setSettingsReference(userSettings);
+
+        // Keep the timer's state for the next run
+        stateFile = Loader.loadTimerState(timer);
+        if (stateFile != null) {
+            timer.addListener(stateFile);
+        }
+
+        // Live timer state for jconsole and other JMX clients
+        timerMonitor = new TimerMonitor(timer);
+        try {
+            timerMonitor.register();
+        } catch (JMException e) {
+            System.err.format("Cannot register timer MBean: %s%n", e.getMessage());
+        }
+
+        // Statistics are built from the journal once, then follow the timer
+        statistics = Loader.loadStatistics();
+        timer.addListener(statistics);
+
+        // The alarm rings from the transition itself, silent until its clip is loaded
+        alarm = new Alarm(timer.getTimingWheel().getClock(), timer.getMetrics());
+        alarmClip.thenAccept(alarm::setClip);
+        timer.addListener(alarm);
+
+        // Record every session and break in the journal
+        journal = Loader.loadJournal();
+        if (journal != null) {
+            timer.addListener(journal);
+        }
+
+        // Carry on with the session of the last run, before anything is shown.
+        // A phase that ended meanwhile completes right away, so every
+        // listener has to be registered by now.
+        restoreTimerState();
+
+        // Signage and dashboards follow the timer through the local HTTP API
+        startHttpServer();
+
+        // Later launches hand their command to this instance
+        serveCommands();
+
+        // inject references to Controllers
+        timerController.setTimerReference(timer);
+        timerController.setSettingsReference(userSettings);
+
+        // Every window switches theme through the theme manager
+        themeManager = new ThemeManager();
+        // Icons of the clock window, decoded for every theme with the first frame
+        themeManager.preloadIcon("settings-btn");
+        themeManager.preloadIcon("close-btn");
+        themeManager.preloadIcon("start-btn");
+        themeManager.preloadIcon("start-btn", PomodoroController.CAN_PAUSE);
+        themeManager.preloadIcon("stop-btn");
+        themeManager.register(timerScene.getRoot());
+        themeManager.setSettingsReference(userSettings);
+
+        // Inject Stage references into TimerController
+        timerController.setSettingsWindow(settingsWindow);
+        timerController.setTimerStage(timerStage);
+    }
+
+    /**
+     * Wire the settings window once it is first opened
+     */
+    private void setupSettingsWindow(Stage settingsStage, SettingsController settingsController) {
+        settingsController.setSettingsReference(userSettings);
+        settingsController.setStatisticsWindow(statisticsWindow);
+        userSettings.addListener(settingsController);
+        themeManager.register(settingsStage.getScene().getRoot());
+
+        settingsStage.setOnShown(e -> {
+            settingsController.settingsChanged(SettingsChange.all());
+        });
+    }
+
+    /**
+     * Wire the statistics window once it is first opened
+     */
+    private void setupStatisticsWindow(Stage statisticsStage, StatisticsController statisticsController) {
+        statisticsController.setStatisticsReference(statistics);
+        themeManager.register(statisticsStage.getScene().getRoot());
+
+        statisticsStage.setOnShown(e -> {
+            statisticsStage.setAlwaysOnTop(userSettings.isAlwaysOnTop());
+            statisticsController.refreshStatistics();
+        });
+    }
+
+    /**
+     * Start loading what the first frame does not need. The stylesheets
+     * are parsed once so the CSS classes and files are warm when the
+     * first pulse styles the clock, the alarm sound is decoded into
+     * memory and handed to the alarm.
+     */
+    private void startBackgroundLoading() {
+        runtime = PomodoroRuntime.shared();
+
+        runtime.getIoExecutor().execute(() -> {
+            Loader.warmStylesheet("css/clock.css");
+            Loader.warmStylesheet("css/dark-mode.css");
+            Loader.warmStylesheet("css/light-mode.css");
+        });
+        alarmClip = CompletableFuture.supplyAsync(
+                () -> Loader.loadAudioClip("audio/alarm.mp3"), runtime.getIoExecutor());
+    }
+
+    private void setupSettingsListeners() {
+        userSettings.addListener(timerController);
+        userSettings.addListener(themeManager);
+    }
+
+    private void setupPrimaryStage() {
+        timerStage.setOnHidden(e -> {
+            settingsWindow.close();
+            statisticsWindow.close();
+        });
+        timerStage.initStyle(StageStyle.UNDECORATED);
+        timerStage.setResizable(false);
+        timerStage.setTitle("Pomodoro Clock");
+        timerStage.setScene(timerScene);
+        timerStage.show();
+    }
+
+    private void applyStageSettings() {
+        timerStage.setOnShown(e -> {
+            timerController.settingsChanged(SettingsChange.all());
+        });
+    }
+
+    /**
+     * Report the time from JVM start until the pulse that lays out the
+     * first frame of the clock, then preload the settings window. Quits
+     * instead when the pomodoro.exitAfterFirstFrame property is set.
+     */
+    private void measureFirstFrame() {
+        timerScene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                if (firstFrameMillis >= 0) {
+                    return;
+                }
+                long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+                firstFrameMillis = System.currentTimeMillis() - startTime;
+                System.out.format("Time to first frame: %d ms%n", firstFrameMillis);
+
+                // The scene is iterating its listeners, remove this one afterwards
+                Runnable listener = this;
+                Platform.runLater(() -> timerScene.removePostLayoutPulseListener(listener));
+                if (Boolean.getBoolean(EXIT_AFTER_FIRST_FRAME)) {
+                    Platform.runLater(Platform::exit);
+                    return;
+                }
+                settingsWindow.preload(runtime.getIoExecutor());
+            }
+        });
+    }
+
+    @Override
+    public void start(Stage primaryStage) {
+        timerStage = primaryStage;
+
+        // Only one instance runs, a later one hands over to it
+        if (!claimCommandChannel()) {
+            Platform.exit();
+            return;
+        }
+
+        // Resources not needed for the first frame load in parallel
+        startBackgroundLoading();
+
+        // Loads the scenes and controller
+        getSceneAndController();
+
+        // Injects dependencies into the controllers
+        injectDependency();
+
+        // Add controllers as observers for settings change
+        setupSettingsListeners();
+
+        // Load settings after window is shown
+        applyStageSettings();
+
+        // Setup and display the main window
+        measureFirstFrame();
+        setupPrimaryStage();
+    }
+
+    /**
+     * Stops the timer, writes out everything that is still pending and
+     * shuts the runtime down. All threads are daemons, so the JVM exits
+     * once the FX toolkit has stopped.
+     */
+    @Override
+    public void stop() {
+        // Another instance was running, nothing was started
+        if (timer == null) {
+            return;
+        }
+        ShutdownEvent event = new ShutdownEvent();
+        event.begin();
+        timerController.shutdownController();
+        if (httpServer != null) {
+            httpServer.stop();
+        }
+        closeCommandChannel();
+        timer.shutdownTimer();
+        unregisterTimerMonitor();
+        // Write out the settings that are still waiting to be written
+        userSettings.flush();
+        closeJournal();
+        closeStateFile();
+        boolean isDrained = runtime.shutdown(SHUTDOWN_BUDGET);
+        if (!isDrained) {
+            System.err.format("Pending work did not finish within %d ms%n", SHUTDOWN_BUDGET);
+        }
+        // How long the shutdown took is left to the flight recorder
+        if (event.shouldCommit()) {
+            event.set(isDrained);
+            event.commit();
+        }
+    }
+
+    /**
+     * Serve the local HTTP API if a port is given with -Dpomodoro.http.port
+     */
+    private void startHttpServer() {
+        Integer port = Integer.getInteger(HTTP_PORT);
+        if (port == null) {
+            return;
+        }
+        try {
+            httpServer = new TimerHttpServer(timer, port, runtime);
+            httpServer.start();
+        } catch (IOException e) {
+            System.err.format("Cannot start HTTP API on port %d: %s%n", port, e.getMessage());
+        }
+    }
+
+    /**
+     * Claim the command socket, which makes this the running instance.
+     * When another instance was launched at the same moment and got it
+     * first, that one is brought to the front instead.
+     * @return should this instance run
+     */
+    private boolean claimCommandChannel() {
+        Path socketFile = CommandChannel.defaultSocketFile();
+        try {
+            commandChannel = CommandChannel.listen(socketFile);
+            return true;
+        } catch (IOException e) {
+            if (!CommandChannel.isRunning(socketFile)) {
+                // Run without the channel rather than not at all
+                System.err.format("Cannot listen for commands: %s%n", e.getMessage());
+                return true;
+            }
+        }
+        try {
+            CommandChannel.send(socketFile, CommandChannel.SHOW);
+        } catch (IOException e) {
+            System.err.format("Cannot reach the running instance: %s%n", e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Answer the commands of later launches, see Entry
+     */
+    private void serveCommands() {
+        if (commandChannel == null) {
+            return;
+        }
+        commandChannel.setShowHandler(() -> Platform.runLater(() -> {
+            timerStage.setIconified(false);
+            timerStage.show();
+            timerStage.toFront();
+        }));
+        commandChannel.serve(timer);
+    }
+
+    private void closeCommandChannel() {
+        if (commandChannel == null) {
+            return;
+        }
+        try {
+            commandChannel.close();
+        } catch (IOException e) {
+            System.err.format("Cannot close command channel: %s%n", e.getMessage());
+        }
+    }
+
+    private void unregisterTimerMonitor() {
+        try {
+            timerMonitor.unregister();
+        } catch (JMException e) {
+            System.err.format("Cannot unregister timer MBean: %s%n", e.getMessage());
+        }
+    }
+
+    private void restoreTimerState() {
+        if (stateFile == null) {
+            return;
+        }
+        try {
+            stateFile.restore();
+        } catch (IOException e) {
+            System.err.format("Cannot restore timer state: %s%n", e.getMessage());
+        }
+    }
+
+    private void closeStateFile() {
+        if (stateFile == null) {
+            return;
+        }
+        try {
+            stateFile.close();
+        } catch (IOException e) {
+            System.err.format("Cannot close timer state: %s%n", e.getMessage());
+        }
+    }
+
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.format("Cannot close session journal: %s%n", e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) {
+        launch();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+package ancientmeme.pomodoro.fx.util;
+
+import ancientmeme.pomodoro.TimerEvent;
+import ancientmeme.pomodoro.TimerListener;
+import ancientmeme.pomodoro.TimerMetrics;
+import ancientmeme.pomodoro.timing.Clock;
+import javafx.scene.media.AudioClip;
+
+/**
+ * Plays the alarm the moment a session or break completes. The sound is
+ * an AudioClip, which is decoded into memory once and can be played from
+ * any thread, so it is started directly on the thread that switches the
+ * timer instead of waiting for the next display refresh. Until a clip is
+ * set, or when it cannot be loaded, the alarm stays silent.
+ *
+ * How long after the end of each phase the clip was started goes to the
+ * timer's metrics, where TimerMonitor publishes it.
+ */
+public class Alarm implements TimerListener {
+    private final Clock clock;
+    private final TimerMetrics metrics;
+    private volatile AudioClip clip;
+
+    /**
+     * @param clock the clock of the timer the alarm listens to
+     * @param metricsRef metrics of the same timer, receives the latency of every alarm
+     */
+    public Alarm(Clock clock, TimerMetrics metricsRef) {
+        this.clock = clock;
+        metrics = metricsRef;
+    }
+
+    /**
+     * Set the sound of the alarm, can be called from any thread
+     * @param clipRef the decoded sound, null to silence the alarm
+     */
+    public void setClip(AudioClip clipRef) {
+        clip = clipRef;
+    }
+
+    @Override
+    public void timerChanged(TimerEvent event) {
+        switch (event.getType()) {
+            case SESSION_COMPLETED:
+            case BREAK_COMPLETED:
+            case LONG_BREAK_COMPLETED:
+                play(event.getTime());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void play(long deadline) {
+        AudioClip sound = clip;
+        if (sound == null) {
+            return;
+        }
+
+        sound.stop();
+        sound.play();
+        metrics.recordAlarm(clock.millis() - deadline);
+    }
+}
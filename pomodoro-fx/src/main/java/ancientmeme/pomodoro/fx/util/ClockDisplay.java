@@ -0,0 +1,62 @@
+package ancientmeme.pomodoro.fx.util;
+
+import ancientmeme.pomodoro.TimerSnapshot;
+import ancientmeme.pomodoro.util.DisplayText;
+import ancientmeme.pomodoro.util.TimerMode;
+import javafx.scene.text.Text;
+
+/**
+ * The mode and remaining time texts of the clock window. A snapshot only
+ * changes the texts whose value differs from what is shown, so a running
+ * timer touches the scene graph once a second however many snapshots
+ * arrive. The texts come from precomputed tables, nothing is allocated.
+ * Should only be used on the FX Application Thread.
+ */
+public class ClockDisplay {
+    private final Text modeDisplay;
+    private final Text timerDisplay;
+    // What the display currently shows, used to skip redundant updates
+    private long displayedSeconds;
+    private TimerMode displayedMode;
+    private int displayedBreakCount;
+
+    public ClockDisplay(Text modeDisplayRef, Text timerDisplayRef) {
+        modeDisplay = modeDisplayRef;
+        timerDisplay = timerDisplayRef;
+        clear();
+    }
+
+    /**
+     * Forget what is shown, the next snapshot sets every text
+     */
+    public void clear() {
+        displayedSeconds = -1;
+        displayedMode = null;
+        displayedBreakCount = -1;
+    }
+
+    /**
+     * Show the remaining time and mode of the snapshot
+     * @param snapshot the state of the timer
+     * @return how many texts were changed, 0 if the snapshot shows nothing new
+     */
+    public int show(TimerSnapshot snapshot) {
+        int textsChanged = 0;
+        TimerMode mode = snapshot.getMode();
+        int breakCount = snapshot.getBreakCount();
+        if (mode != displayedMode || breakCount != displayedBreakCount) {
+            modeDisplay.setText(DisplayText.modeText(mode, breakCount));
+            displayedMode = mode;
+            displayedBreakCount = breakCount;
+            textsChanged += 1;
+        }
+
+        long remainingSeconds = snapshot.getRemainingSeconds();
+        if (remainingSeconds != displayedSeconds) {
+            timerDisplay.setText(DisplayText.formatTime(remainingSeconds));
+            displayedSeconds = remainingSeconds;
+            textsChanged += 1;
+        }
+        return textsChanged;
+    }
+}
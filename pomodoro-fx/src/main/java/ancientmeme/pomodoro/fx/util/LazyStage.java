@@ -0,0 +1,100 @@
+package ancientmeme.pomodoro.fx.util;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+
+/**
+ * A secondary window that is only built when it is first needed. The
+ * FXML can also be loaded ahead of time on a background thread, nodes
+ * may be built on any thread as long as they are not shown yet. The
+ * Scene and Stage are always created on the FX Application Thread.
+ * @param <C> type of the window's controller
+ */
+public class LazyStage<C> {
+    private final String fxmlFile;
+    private final double width;
+    private final double height;
+    // Called once on the FX Application Thread when the stage is built
+    private final BiConsumer<Stage, C> setup;
+    private CompletableFuture<FXMLLoader> preloaded;
+    private Stage stage;
+
+    /**
+     * @param fxmlFile the fxml file of the window
+     * @param width width of the scene
+     * @param height height of the scene
+     * @param setup wires the new stage and its controller into the application
+     */
+    public LazyStage(String fxmlFile, double width, double height, BiConsumer<Stage, C> setup) {
+        this.fxmlFile = fxmlFile;
+        this.width = width;
+        this.height = height;
+        this.setup = setup;
+    }
+
+    /**
+     * Start loading the FXML on the given executor, the stage is still
+     * built by the first getStage call
+     * @param executor runs the loading, must not be the FX Application Thread
+     */
+    public void preload(Executor executor) {
+        if (preloaded == null && stage == null) {
+            preloaded = CompletableFuture.supplyAsync(() -> {
+                FXMLLoader loader = new FXMLLoader();
+                Loader.loadFXMLRoot(loader, fxmlFile);
+                return loader;
+            }, executor);
+        }
+    }
+
+    /**
+     * Gets the window, building it on the first call. Should only be
+     * used on the FX Application Thread.
+     * @return the window
+     */
+    public Stage getStage() {
+        if (stage != null) {
+            return stage;
+        }
+
+        FXMLLoader loader;
+        if (preloaded != null) {
+            // Waits for a preload that is still running instead of loading twice
+            loader = preloaded.join();
+            preloaded = null;
+        } else {
+            loader = new FXMLLoader();
+            Loader.loadFXMLRoot(loader, fxmlFile);
+        }
+
+        stage = new Stage();
+        stage.setScene(new Scene(loader.<Parent>getRoot(), width, height));
+        stage.initStyle(StageStyle.UNDECORATED);
+        setup.accept(stage, loader.getController());
+        return stage;
+    }
+
+    /**
+     * Gets whether the window has been built
+     * @return true if getStage has been called
+     */
+    public boolean isLoaded() {
+        return stage != null;
+    }
+
+    /**
+     * Close the window if it has been built
+     */
+    public void close() {
+        if (stage != null) {
+            stage.close();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package ancientmeme.pomodoro.fx.util;
+
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.fx.PomodoroLauncher;
+import ancientmeme.pomodoro.history.FocusStatistics;
+import ancientmeme.pomodoro.history.JournalReader;
+import ancientmeme.pomodoro.history.SessionJournal;
+import ancientmeme.pomodoro.history.TimerStateFile;
+import ancientmeme.pomodoro.settings.MappedSettingsStore;
+import ancientmeme.pomodoro.settings.PreferencesSettingsStore;
+import ancientmeme.pomodoro.settings.SettingsKey;
+import ancientmeme.pomodoro.settings.SettingsStore;
+import javafx.css.CssParser;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.media.AudioClip;
+import javafx.scene.media.MediaException;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * A loader that contains all the methods of loading required files
+ * for the application
+ */
+
+public class Loader {
+    /**
+     * Loads the FXML file requested and returns a Scene object
+     * in the dimension specified. Failure to load would result in
+     * process exiting.
+     *
+     * @param loader FXMLLoader for loading fxml files
+     * @param fileName the name of the file
+     * @param width width of the scene
+     * @param height height of the scene
+     * @return a Scene object with specified dimensions
+     */
+    public static Scene loadFXMLFile(FXMLLoader loader, String fileName, double width, double height) {
+        return new Scene(loadFXMLRoot(loader, fileName), width, height);
+    }
+
+    /**
+     * Loads the FXML file requested without creating a Scene, so it can
+     * be used outside the FX Application Thread. Failure to load would
+     * result in process exiting.
+     *
+     * @param loader FXMLLoader for loading fxml files
+     * @param fileName the name of the file
+     * @return the root node of the file
+     */
+    public static Parent loadFXMLRoot(FXMLLoader loader, String fileName) {
+        Parent root = null;
+        URL fileURL = PomodoroLauncher.class.getResource(fileName);
+
+        try {
+            loader.setLocation(fileURL);
+            root = loader.load();
+        } catch (IOException e) {
+            System.err.format("Cannot load FXML file: %s%n", fileName);
+            System.exit(1);
+        }
+        return root;
+    }
+
+    /**
+     * Load a short sound and decode it into memory, so it can be
+     * played without delay
+     * @param filename the file name for the sound
+     * @return the decoded sound, null if it cannot be loaded
+     */
+    public static AudioClip loadAudioClip(String filename) {
+        AudioClip clip = null;
+        try {
+            String resource = PomodoroLauncher.class.getResource(filename).toURI().toString();
+            clip = new AudioClip(resource);
+        } catch (URISyntaxException | NullPointerException | IllegalArgumentException | MediaException e) {
+            System.err.format("Cannot load audio file: %s%n", filename);
+        }
+        return clip;
+    }
+
+    /**
+     * Opens the binary settings file in the user's home directory. When
+     * the file is created, the settings saved by earlier versions in
+     * java.util.prefs are copied into it once. If the file cannot be
+     * mapped, the java.util.prefs storage is used instead.
+     * @return the store holding the user settings
+     */
+    public static SettingsStore loadSettingsStore() {
+        Path file = getDataDirectory().resolve("settings.bin");
+        try {
+            MappedSettingsStore store = new MappedSettingsStore(file);
+            if (store.isNewFile()) {
+                importPreferences(store);
+            }
+            return store;
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.format("Cannot load settings file: %s%n", file);
+            return new PreferencesSettingsStore();
+        }
+    }
+
+    /**
+     * Opens the journal of completed sessions and breaks in the
+     * user's home directory
+     * @return the journal, null if it cannot be opened
+     */
+    public static SessionJournal loadJournal() {
+        Path file = getDataDirectory().resolve("journal.bin");
+        try {
+            return new SessionJournal(file);
+        } catch (IOException e) {
+            System.err.format("Cannot load session journal: %s%n", file);
+            return null;
+        }
+    }
+
+    /**
+     * Opens the saved state of the timer in the user's home directory,
+     * call restore once the timer's listeners are registered
+     * @param timer the timer whose state is kept
+     * @return the state file, null if it cannot be opened
+     */
+    public static TimerStateFile loadTimerState(PomodoroTimer timer) {
+        Path file = getDataDirectory().resolve("timer.state");
+        try {
+            return new TimerStateFile(file, timer);
+        } catch (IOException e) {
+            System.err.format("Cannot load timer state: %s%n", file);
+            return null;
+        }
+    }
+
+    /**
+     * Builds the focus statistics from the journal in the user's home
+     * directory. This is the only full read of the journal, afterwards
+     * the statistics are kept up to date by the timer's events.
+     * @return the statistics, empty if there is no readable journal
+     */
+    public static FocusStatistics loadStatistics() {
+        FocusStatistics statistics = new FocusStatistics();
+        Path file = getDataDirectory().resolve("journal.bin");
+        if (!Files.exists(file)) {
+            return statistics;
+        }
+        try (JournalReader reader = new JournalReader(file)) {
+            statistics.replay(reader);
+        } catch (IOException e) {
+            System.err.format("Cannot read session journal: %s%n", file);
+        }
+        return statistics;
+    }
+
+    /**
+     * Gets the directory holding the application's own files
+     * @return the .pomodoro directory in the user's home directory
+     */
+    private static Path getDataDirectory() {
+        return Paths.get(System.getProperty("user.home"), ".pomodoro");
+    }
+
+    /**
+     * Copy the settings saved in java.util.prefs into the given store
+     * @param store the store to copy to
+     */
+    private static void importPreferences(SettingsStore store) {
+        PreferencesSettingsStore preferences = new PreferencesSettingsStore();
+        for (SettingsKey key : SettingsKey.values()) {
+            switch (key) {
+                case LONG_BREAK:
+                case LIGHT_MODE:
+                case ON_TOP:
+                    store.putBoolean(key, preferences.getBoolean(key, false));
+                    break;
+                case WINDOW_X:
+                case WINDOW_Y:
+                    store.putDouble(key, preferences.getDouble(key, 0));
+                    break;
+                default:
+                    long value = preferences.getLong(key, -1);
+                    if (value >= 0) {
+                        store.putLong(key, value);
+                    }
+                    break;
+            }
+        }
+        store.flush();
+    }
+
+    /**
+     * Parse a stylesheet once and drop the result. JavaFX keeps its own
+     * cache of parsed stylesheets, this only loads the parser and reads
+     * the file ahead of the first pulse, so it can run on any thread.
+     * @param filename the stylesheet, relative to the application resources
+     */
+    public static void warmStylesheet(String filename) {
+        URL cssURL = PomodoroLauncher.class.getResource(filename);
+        if (cssURL == null) {
+            return;
+        }
+        try {
+            new CssParser().parse(cssURL);
+        } catch (IOException e) {
+            System.err.format("Cannot read css file: %s%n", filename);
+        }
+    }
+
+    public static String loadCSS(String filename) {
+        String cssURL = null;
+        try {
+            cssURL = PomodoroLauncher.class.getResource(filename).toExternalForm();
+        } catch (NullPointerException e) {
+            System.err.format("Cannot load css file: %s%n", filename);
+            System.exit(1);
+        }
+        return cssURL;
+    }
+}
@@ -1,4 +1,4 @@
-package ancientmeme.pomodoro.settings;
+package ancientmeme.pomodoro.fx.util;
 
 import javafx.util.converter.LongStringConverter;
 
@@ -0,0 +1,217 @@
+package ancientmeme.pomodoro.fx.util;
+
+import ancientmeme.pomodoro.monitoring.ThemeSwitchEvent;
+import ancientmeme.pomodoro.settings.SettingsChange;
+import ancientmeme.pomodoro.settings.SettingsKey;
+import ancientmeme.pomodoro.settings.SettingsListener;
+import ancientmeme.pomodoro.settings.UserSettings;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.css.PseudoClass;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.layout.Pane;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Switches the theme of every registered window at once. Each theme is
+ * a stylesheet that is loaded a single time. JavaFX drops a parsed
+ * stylesheet and the icons it references once no node uses it anymore,
+ * so every theme stays attached to a hidden node in the first registered
+ * window; switching back and forth then never re-parses a stylesheet.
+ *
+ * JavaFX only decodes an icon a stylesheet references once a node is
+ * styled with it. Each theme's hidden node therefore holds a hidden
+ * button for every icon given to preloadIcon, so the icons of all themes
+ * are decoded with the first window and a switch finds them cached.
+ * How long each switch takes is recorded as a ThemeSwitchEvent.
+ * Should only be used on the FX Application Thread.
+ */
+public class ThemeManager implements SettingsListener {
+    public static final String DARK_THEME = "dark";
+    public static final String LIGHT_THEME = "light";
+    // Theme name to stylesheet URL
+    private final Map<String, String> themes;
+    private final List<Parent> roots;
+    // Hidden node keeping every theme stylesheet in use, one child per theme
+    private final Group themeCache;
+    private UserSettings userSettings;
+    private String currentTheme;
+
+    public ThemeManager() {
+        themes = new LinkedHashMap<>();
+        roots = new ArrayList<>();
+        themeCache = new Group();
+        themeCache.setManaged(false);
+        themeCache.setVisible(false);
+
+        registerTheme(DARK_THEME, "css/dark-mode.css");
+        registerTheme(LIGHT_THEME, "css/light-mode.css");
+        currentTheme = DARK_THEME;
+    }
+
+    /**
+     * Get reference to the settings, then apply the saved theme
+     * @param settings the saved user settings
+     */
+    public void setSettingsReference(UserSettings settings) {
+        userSettings = settings;
+        applyTheme(getSavedTheme());
+    }
+
+    @Override
+    public void settingsChanged(SettingsChange change) {
+        if (change.contains(SettingsKey.LIGHT_MODE)) {
+            applyTheme(getSavedTheme());
+        }
+    }
+
+    /**
+     * Add a theme that windows can be switched to
+     * @param name the name of the theme
+     * @param cssFile the stylesheet of the theme, relative to the application resources
+     */
+    public void registerTheme(String name, String cssFile) {
+        String stylesheet = Loader.loadCSS(cssFile);
+        themes.put(name, stylesheet);
+
+        Group themeNode = new Group();
+        themeNode.getStylesheets().add(stylesheet);
+        // The new theme loads the icons the other themes preload
+        if (!themeCache.getChildren().isEmpty()) {
+            for (Node icon : ((Group) themeCache.getChildren().get(0)).getChildren()) {
+                themeNode.getChildren().add(createIconProbe(icon.getId(), icon.getPseudoClassStates()));
+            }
+        }
+        themeCache.getChildren().add(themeNode);
+    }
+
+    /**
+     * Have every theme decode an icon before it is first shown, the
+     * button with the given id and states gets its graphic from the theme
+     * @param id the id of the button showing the icon
+     * @param states the pseudo-classes the icon is shown in, none for the default icon
+     */
+    public void preloadIcon(String id, PseudoClass... states) {
+        List<PseudoClass> stateList = Arrays.asList(states);
+        for (Node themeNode : themeCache.getChildren()) {
+            ((Group) themeNode).getChildren().add(createIconProbe(id, stateList));
+        }
+    }
+
+    /**
+     * Register the root of a window, the current theme is applied
+     * to it right away and on every switch
+     * @param root the root node of a window
+     */
+    public void register(Parent root) {
+        if (roots.isEmpty() && root instanceof Pane) {
+            ((Pane) root).getChildren().add(themeCache);
+        }
+        roots.add(root);
+        applyTo(root, themes.get(currentTheme));
+    }
+
+    /**
+     * Switch every registered window to the given theme within one pulse
+     * @param name the name of a registered theme
+     */
+    public void applyTheme(String name) {
+        String stylesheet = themes.get(name);
+        if (stylesheet == null) {
+            throw new IllegalArgumentException("Unknown theme: " + name);
+        }
+        if (name.equals(currentTheme)) {
+            return;
+        }
+
+        ThemeSwitchEvent event = new ThemeSwitchEvent();
+        event.begin();
+        currentTheme = name;
+        for (Parent root : roots) {
+            applyTo(root, stylesheet);
+        }
+        measureSwitch(event);
+    }
+
+    public String getCurrentTheme() {
+        return currentTheme;
+    }
+
+    private static Button createIconProbe(String id, Collection<PseudoClass> states) {
+        Button probe = new Button();
+        probe.setId(id);
+        probe.setFocusTraversable(false);
+        for (PseudoClass state : states) {
+            probe.pseudoClassStateChanged(state, true);
+        }
+        return probe;
+    }
+
+    private String getSavedTheme() {
+        return (userSettings.isLightModeEnabled()) ? LIGHT_THEME : DARK_THEME;
+    }
+
+    /**
+     * Replace the theme stylesheet of the root in place, a single list
+     * change instead of a remove followed by an add
+     */
+    private void applyTo(Parent root, String stylesheet) {
+        ObservableList<String> stylesheets = root.getStylesheets();
+        for (int i = 0; i < stylesheets.size(); ++i) {
+            if (themes.containsValue(stylesheets.get(i))) {
+                if (!stylesheets.get(i).equals(stylesheet)) {
+                    stylesheets.set(i, stylesheet);
+                }
+                return;
+            }
+        }
+        stylesheets.add(stylesheet);
+    }
+
+    /**
+     * Commit the switch event once the next pulse has applied the styles,
+     * at once if no window is in a scene and no pulse will follow
+     */
+    private void measureSwitch(ThemeSwitchEvent event) {
+        if (roots.isEmpty() || roots.get(0).getScene() == null) {
+            commitSwitch(event);
+            return;
+        }
+
+        Scene scene = roots.get(0).getScene();
+        scene.addPostLayoutPulseListener(new Runnable() {
+            private boolean isMeasured = false;
+
+            @Override
+            public void run() {
+                if (isMeasured) {
+                    return;
+                }
+                isMeasured = true;
+                commitSwitch(event);
+                // The scene is iterating its listeners, remove this one afterwards
+                Runnable listener = this;
+                Platform.runLater(() -> scene.removePostLayoutPulseListener(listener));
+            }
+        });
+        Platform.requestNextPulse();
+    }
+
+    private void commitSwitch(ThemeSwitchEvent event) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(currentTheme, roots.size());
+            event.commit();
+        }
+    }
+}
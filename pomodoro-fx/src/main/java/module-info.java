@@ -0,0 +1,14 @@
+module ancientmeme.pomodoro.fx {
+    requires ancientmeme.pomodoro;
+    requires javafx.controls;
+    requires javafx.fxml;
+    requires javafx.media;
+    requires java.management;
+
+    exports ancientmeme.pomodoro.fx;
+    opens ancientmeme.pomodoro.fx to javafx.fxml;
+    exports ancientmeme.pomodoro.controller;
+    opens ancientmeme.pomodoro.controller to javafx.fxml;
+    exports ancientmeme.pomodoro.fx.util;
+    opens ancientmeme.pomodoro.fx.util to javafx.fxml;
+}
@@ -0,0 +1,63 @@
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerEvent;
+import ancientmeme.pomodoro.TimerMetrics;
+import ancientmeme.pomodoro.fx.util.Alarm;
+import ancientmeme.pomodoro.fx.util.Loader;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import ancientmeme.pomodoro.util.TimerEventType;
+import javafx.scene.media.AudioClip;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class AlarmTest {
+    private VirtualClock clock;
+    private TimerMetrics metrics;
+    private Alarm alarm;
+
+    @BeforeEach
+    public void setup() {
+        clock = new VirtualClock();
+        metrics = new PomodoroTimer(TimingWheel.manual(clock)).getMetrics();
+        alarm = new Alarm(clock, metrics);
+    }
+
+    @Test
+    public void silentWithoutClipTest() {
+        alarm.timerChanged(new TimerEvent(TimerEventType.SESSION_COMPLETED, 1000, 0, clock.millis()));
+
+        Assertions.assertEquals(0, metrics.getAlarmCount());
+        Assertions.assertEquals(-1, metrics.getLastAlarmLatency());
+    }
+
+    @Test
+    public void missingClipTest() {
+        AudioClip clip = Loader.loadAudioClip("audio/missing.mp3");
+        Assertions.assertNull(clip);
+
+        alarm.setClip(clip);
+        alarm.timerChanged(new TimerEvent(TimerEventType.BREAK_COMPLETED, 1000, 1, clock.millis()));
+        Assertions.assertEquals(0, metrics.getAlarmCount());
+    }
+
+    @Test
+    public void latencyTest() {
+        AudioClip clip = Loader.loadAudioClip("audio/alarm.mp3");
+        Assumptions.assumeTrue(clip != null, "No audio support");
+        alarm.setClip(clip);
+
+        long deadline = clock.millis();
+        clock.advance(40);
+        // Only completed phases ring
+        alarm.timerChanged(new TimerEvent(TimerEventType.STARTED, 1000, 0, deadline));
+        Assertions.assertEquals(0, metrics.getAlarmCount());
+
+        alarm.timerChanged(new TimerEvent(TimerEventType.SESSION_COMPLETED, 1000, 0, deadline));
+        clip.stop();
+        Assertions.assertEquals(1, metrics.getAlarmCount());
+        Assertions.assertEquals(40, metrics.getLastAlarmLatency());
+        Assertions.assertEquals(40, metrics.getAlarmLatency().getMax());
+    }
+}
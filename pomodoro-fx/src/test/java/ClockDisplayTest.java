@@ -0,0 +1,97 @@
+import ancientmeme.pomodoro.PomodoroTimer;
+import ancientmeme.pomodoro.TimerSnapshot;
+import ancientmeme.pomodoro.fx.util.ClockDisplay;
+import ancientmeme.pomodoro.settings.MemorySettingsStore;
+import ancientmeme.pomodoro.settings.UserSettings;
+import ancientmeme.pomodoro.timing.TimingWheel;
+import ancientmeme.pomodoro.timing.VirtualClock;
+import javafx.scene.text.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Flow;
+
+import static ancientmeme.pomodoro.PomodoroTimer.MINUTE;
+import static ancientmeme.pomodoro.PomodoroTimer.SECOND;
+
+public class ClockDisplayTest {
+    private VirtualClock clock;
+    private PomodoroTimer timer;
+    private Text modeDisplay;
+    private Text timerDisplay;
+    private int timeUpdates;
+    private int modeUpdates;
+
+    @BeforeEach
+    public void setup() {
+        clock = new VirtualClock();
+        timer = new PomodoroTimer(TimingWheel.manual(clock));
+        timer.setSettingsReference(new UserSettings(new MemorySettingsStore()));
+        modeDisplay = new Text();
+        timerDisplay = new Text();
+        modeDisplay.textProperty().addListener((observable, oldText, newText) -> modeUpdates += 1);
+        timerDisplay.textProperty().addListener((observable, oldText, newText) -> timeUpdates += 1);
+
+        // Shown on the timer's thread, as the window does on the FX thread
+        ClockDisplay display = new ClockDisplay(modeDisplay, timerDisplay);
+        timer.getPublisher().subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(TimerSnapshot snapshot) {
+                display.show(snapshot);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    @Test
+    public void oneUpdatePerSecondTest() {
+        Assertions.assertEquals("25:00", timerDisplay.getText());
+        timer.startTimer();
+        timeUpdates = 0;
+        modeUpdates = 0;
+
+        // Observed ten times a second for a minute
+        for (int i = 0; i < 600; ++i) {
+            clock.advance(SECOND / 10);
+        }
+        Assertions.assertEquals(60, timeUpdates);
+        Assertions.assertEquals(0, modeUpdates);
+        Assertions.assertEquals("24:00", timerDisplay.getText());
+
+        // A paused timer leaves the scene graph alone
+        timer.pauseTimer();
+        int pausedUpdates = timeUpdates;
+        clock.advance(MINUTE);
+        Assertions.assertEquals(pausedUpdates, timeUpdates);
+    }
+
+    @Test
+    public void redundantSnapshotTest() {
+        timer.startTimer();
+        clock.advance(SECOND);
+
+        // Snapshots of an unchanged state change no text
+        ClockDisplay display = new ClockDisplay(new Text(), new Text());
+        Assertions.assertEquals(2, display.show(timer.getSnapshot()));
+        Assertions.assertEquals(0, display.show(timer.getSnapshot()));
+        clock.advance(SECOND / 2);
+        Assertions.assertEquals(0, display.show(timer.getSnapshot()));
+
+        // After clearing every text is set again
+        display.clear();
+        Assertions.assertEquals(2, display.show(timer.getSnapshot()));
+    }
+}
@@ -1,4 +1,4 @@
-import ancientmeme.pomodoro.settings.SettingsStringConverter;
+import ancientmeme.pomodoro.fx.util.SettingsStringConverter;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
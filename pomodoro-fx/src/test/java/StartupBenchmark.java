@@ -0,0 +1,126 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Launches the application repeatedly until its first frame and reports
+ * the p50/p95 startup time, once with the image's class data sharing
+ * archive and once with sharing turned off. Each launch is timed from
+ * process creation until the launcher prints its first frame line, the
+ * time the launcher measured itself since JVM start is reported too.
+ *
+ * Usage: StartupBenchmark javaExecutable module/mainClass runs userHome
+ */
+public class StartupBenchmark {
+    private static final String FIRST_FRAME_LINE = "Time to first frame: ";
+    private static final long LAUNCH_TIMEOUT_SECONDS = 60;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 4) {
+            System.err.println("Usage: StartupBenchmark javaExecutable module/mainClass runs userHome");
+            System.exit(1);
+        }
+        String java = args[0];
+        String module = args[1];
+        int runs = Integer.parseInt(args[2]);
+        String userHome = args[3];
+
+        // One untimed launch so both configurations start with warm file caches
+        launch(java, module, userHome, "-Xshare:auto");
+        report("cds", java, module, userHome, "-Xshare:auto", runs);
+        report("no-cds", java, module, userHome, "-Xshare:off", runs);
+    }
+
+    private static void report(String name, String java, String module, String userHome,
+                               String shareOption, int runs) throws IOException, InterruptedException {
+        long[] wallMillis = new long[runs];
+        long[] reportedMillis = new long[runs];
+        for (int i = 0; i < runs; ++i) {
+            long[] result = launch(java, module, userHome, shareOption);
+            wallMillis[i] = result[0];
+            reportedMillis[i] = result[1];
+        }
+        System.out.format("%s runs=%d wall_p50_ms=%d wall_p95_ms=%d jvm_p50_ms=%d jvm_p95_ms=%d%n",
+                name, runs, percentile(wallMillis, 50), percentile(wallMillis, 95),
+                percentile(reportedMillis, 50), percentile(reportedMillis, 95));
+    }
+
+    /**
+     * Launch the application once and wait for its first frame
+     * @return the wall time and the time reported by the launcher, in milliseconds
+     */
+    private static long[] launch(String java, String module, String userHome, String shareOption)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(Arrays.asList(java, shareOption,
+                "-Duser.home=" + userHome, "-Dpomodoro.exitAfterFirstFrame=true", "-m", module));
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+
+        // The output is read on its own thread, a launch that hangs without
+        // printing or exiting is then still caught by the deadline
+        CompletableFuture<long[]> firstFrame = new CompletableFuture<>();
+        Thread reader = new Thread(() -> readFirstFrame(process, start, firstFrame), "startup-output");
+        reader.setDaemon(true);
+        reader.start();
+
+        long[] result;
+        try {
+            result = firstFrame.get(LAUNCH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            process.destroyForcibly();
+            throw new IllegalStateException("No first frame within " + LAUNCH_TIMEOUT_SECONDS + " s: " + command);
+        } catch (ExecutionException e) {
+            process.destroyForcibly();
+            throw new IOException("Cannot read the application output", e.getCause());
+        }
+        if (result == null) {
+            throw new IllegalStateException("The application exited before its first frame: " + command);
+        }
+
+        // The launcher exits after its first frame, one that does not is stopped
+        if (!process.waitFor(LAUNCH_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        return result;
+    }
+
+    /**
+     * Read the output of a launch until its end, completing the future
+     * with the wall time and the time the launcher reported once its
+     * first frame line is read, or with null if the output ended without one
+     */
+    private static void readFirstFrame(Process process, long start, CompletableFuture<long[]> firstFrame) {
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (!firstFrame.isDone() && line.startsWith(FIRST_FRAME_LINE)) {
+                    long wall = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    long reported = Long.parseLong(line.substring(FIRST_FRAME_LINE.length()).replace(" ms", "").trim());
+                    firstFrame.complete(new long[] {wall, reported});
+                }
+            }
+            firstFrame.complete(null);
+        } catch (IOException | RuntimeException e) {
+            firstFrame.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Nearest-rank percentile
+     */
+    private static long percentile(long[] values, int percent) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
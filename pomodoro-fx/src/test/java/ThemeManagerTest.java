@@ -0,0 +1,45 @@
+import ancientmeme.pomodoro.fx.util.ThemeManager;
+import javafx.scene.layout.StackPane;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ThemeManagerTest {
+    @Test
+    public void switchEventTest() throws Exception {
+        ThemeManager themeManager = new ThemeManager();
+        StackPane root = new StackPane();
+        themeManager.register(root);
+        String darkStylesheet = root.getStylesheets().get(0);
+
+        Path dump = Files.createTempFile("pomodoro", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("ancientmeme.pomodoro.ThemeSwitch");
+            recording.start();
+
+            themeManager.applyTheme(ThemeManager.LIGHT_THEME);
+            // Already the current theme, nothing is switched
+            themeManager.applyTheme(ThemeManager.LIGHT_THEME);
+            themeManager.applyTheme(ThemeManager.DARK_THEME);
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> switches = RecordingFile.readAllEvents(dump).stream()
+                .filter(e -> e.getEventType().getName().equals("ancientmeme.pomodoro.ThemeSwitch"))
+                .collect(Collectors.toList());
+        Files.delete(dump);
+        List<String> themes = switches.stream().map(e -> e.getString("theme")).collect(Collectors.toList());
+        Assertions.assertEquals(List.of(ThemeManager.LIGHT_THEME, ThemeManager.DARK_THEME), themes);
+        Assertions.assertEquals(1, switches.get(0).getInt("windowCount"));
+        Assertions.assertEquals(List.of(darkStylesheet), root.getStylesheets());
+    }
+}
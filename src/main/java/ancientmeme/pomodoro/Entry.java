@@ -1,7 +0,0 @@
-package ancientmeme.pomodoro;
-
-public class Entry {
-    public static void main(String[] args) {
-        PomodoroLauncher.main(args);
-    }
-}
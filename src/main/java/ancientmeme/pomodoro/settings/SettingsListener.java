@@ -1,5 +0,0 @@
-package ancientmeme.pomodoro.settings;
-
-public interface SettingsListener {
-    void settingsChanged();
-}
@@ -1,9 +0,0 @@
-package ancientmeme.pomodoro.util;
-
-/**
- * Indicate the mode of the timer
- */
-public enum TimerMode {
-    SESSION,
-    BREAK
-}